@@ -0,0 +1,93 @@
+package com.fireproject.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fireproject.dto.FireResponse;
+import com.fireproject.model.history.PendingAnalysis;
+import com.fireproject.model.portfolio.PortfolioKey;
+import com.fireproject.repository.AnalysisHistoryJdbcRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second written to analysis_history, as one JDBC batch per flush versus one insert
+ * per analysis. Defaults to in-memory H2; point it at the MySQL from docker-compose with
+ * {@code -p jdbcUrl=jdbc:mysql://localhost:3306/fire_db?rewriteBatchedStatements=true -p user=root -p password=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalysisHistoryInsertBenchmark {
+
+    private static final int ROWS = 200;
+
+    @Param("jdbc:h2:mem:history;MODE=MySQL;DB_CLOSE_DELAY=-1")
+    public String jdbcUrl;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AnalysisHistoryJdbcRepository repository;
+    private List<PendingAnalysis> batch;
+
+    @Setup
+    public void setup() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(jdbcUrl);
+        dataSource.setUsername(user);
+        dataSource.setPassword(password);
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new AnalysisHistoryJdbcRepository(jdbcTemplate, new ObjectMapper());
+
+        PortfolioKey key = new PortfolioKey(20, 50_000, 3_000, 1_500,
+                new TreeMap<>(Map.of("AAPL", 0.6, "MSFT", 0.4)));
+        FireResponse response = new FireResponse(12.0, 0.0, true, 950_000.0, 50_000.0,
+                900_000.0, 950_000.0, 20.0, 1_500.0, 0.91);
+        batch = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new PendingAnalysis(i % 50, Instant.now(), key, response));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.update("delete from analysis_history");
+    }
+
+    @TearDown
+    public void close() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void batchedInsert() {
+        repository.insertAll(batch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void rowByRowInsert() {
+        for (PendingAnalysis analysis : batch) {
+            repository.insertAll(List.of(analysis));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.fireproject.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files written with {@code -rf json} and flags every benchmark that
+ * got slower than the threshold (10% by default). A change smaller than the two runs' combined
+ * error margin is not reported as a regression. Exits with 1 when any regression is found, so a
+ * release build can fail on it:
+ * <pre>
+ * java -cp fire-engine-bench/target/benchmarks.jar com.fireproject.bench.BenchmarkDiff old.json new.json [0.10]
+ * </pre>
+ */
+public final class BenchmarkDiff {
+
+    private BenchmarkDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkDiff <baseline.json> <candidate.json> [threshold]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> candidate = load(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s%n", entry.getKey(), "new");
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double oldScore = score(before);
+            double newScore = score(after);
+            // Throughput modes are better when higher; time modes when lower
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double slowdown = higherIsBetter ? oldScore / newScore : newScore / oldScore;
+            boolean beyondError = Math.abs(newScore - oldScore) > error(before) + error(after);
+            boolean regressed = slowdown > 1 + threshold && beyondError;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %12.3f -> %12.3f %s  %+6.1f%%%s%n", entry.getKey(), oldScore, newScore,
+                    after.path("primaryMetric").path("scoreUnit").asText(), (slowdown - 1) * 100,
+                    regressed ? "  REGRESSION" : "");
+        }
+        for (String name : baseline.keySet()) {
+            if (!candidate.containsKey(name)) {
+                System.out.printf("%-90s %14s%n", name, "removed");
+            }
+        }
+
+        System.out.printf("%n%d regression(s) above %.0f%%%n", regressions, threshold * 100);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    // Keyed by benchmark method plus its @Param values, since each combination is its own result
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.fireproject.bench.", ""));
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+            if (!params.isEmpty()) {
+                key.append(params);
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble();
+        // JMH writes NaN when a run had too few iterations to estimate the error
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
@@ -0,0 +1,154 @@
+package com.fireproject.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fireproject.dto.FireResponse;
+import com.fireproject.engine.FireProjectionEngine;
+import com.fireproject.infra.cache.AnalysisCache;
+import com.fireproject.infra.cache.FittedModelCache;
+import com.fireproject.infra.http.MotorEndpointPool;
+import com.fireproject.infra.marketdata.MarketCalendar;
+import com.fireproject.infra.marketdata.MarketDataStore;
+import com.fireproject.infra.marketdata.PriceFeed;
+import com.fireproject.service.AnalysisHistoryWriter;
+import com.fireproject.service.FireService;
+import com.fireproject.service.MarketDataService;
+import com.fireproject.service.MotorBatcher;
+import com.fireproject.service.MotorClient;
+import com.fireproject.service.MotorGuard;
+import com.fireproject.service.PortfolioCanonicalizer;
+import com.fireproject.service.TickerMapping;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FireService.consultPythonMotor end to end, with the motor replaced by an in-process HTTP stub
+ * that answers instantly, so only the bridge's share of a request is measured.
+ * {@code analysisCacheHit} repeats one portfolio; {@code fittedModelAnswer} changes the savings
+ * on every call, which is answered from the cached fit; {@code motorRoundTrip} changes the
+ * allocation mix every time and goes over HTTP to the stub, encoded as {@code wireFormat}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+// Without TCP_NODELAY the stub's separate header and body writes stall on delayed ACKs (~40 ms a call)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class FireServiceBenchmark {
+
+    @Param({"json", "cbor"})
+    public String wireFormat;
+
+    private HttpServer motor;
+    private FireService fireService;
+    private long sequence;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper json = new ObjectMapper();
+        ObjectMapper cbor = json.copyWith(new CBORFactory());
+        FireResponse answer = new FireResponse(12.0, 0.0, true, 1_210_345.67, 50_000.0, 1_200_000.0,
+                1_210_345.67, 20.0, 1_500.0, 0.8123, null, 0.0612, 0.1745, null);
+        byte[] jsonAnswer = json.writeValueAsBytes(answer);
+        byte[] cborAnswer = cbor.writeValueAsBytes(answer);
+
+        motor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        motor.createContext("/analyze", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            String accept = exchange.getRequestHeaders().getFirst("Accept");
+            boolean asCbor = accept != null && accept.startsWith("application/cbor");
+            byte[] body = asCbor ? cborAnswer : jsonAnswer;
+            exchange.getResponseHeaders().add("Content-Type", asCbor ? "application/cbor" : "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        motor.start();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        String url = "http://127.0.0.1:" + motor.getAddress().getPort() + "/analyze";
+        MotorEndpointPool endpoints = new MotorEndpointPool(List.of(url), Duration.ofSeconds(1), 2, 1, registry);
+        MotorClient motorClient = new MotorClient(new RestTemplate(new HttpComponentsClientHttpRequestFactory()),
+                Optional.empty(), json, endpoints, new SimpleAsyncTaskExecutorBuilder(), registry, false,
+                Duration.ofSeconds(2), wireFormat);
+        TickerMapping tickerMapping = new TickerMapping(json);
+        PriceFeed noFeed = (ticker, from) -> new PriceFeed.DailyCloses(new int[0], new double[0]);
+        Path prices = Files.createTempDirectory("bench-prices");
+        MotorGuard motorGuard = new MotorGuard(32, Duration.ofMillis(100), 5, Duration.ofSeconds(30), 1, 10_000,
+                Duration.ofHours(24), registry);
+
+        fireService = new FireService(
+                motorClient,
+                new MotorBatcher(motorClient, new SimpleAsyncTaskExecutorBuilder(), registry, false, Duration.ofMillis(5), 16),
+                new PortfolioCanonicalizer(tickerMapping),
+                new AnalysisCache(registry, 10_000, Duration.ofMinutes(15)),
+                motorGuard,
+                new AnalysisHistoryWriter(null, registry, false, 1, 1, Duration.ofSeconds(1)),
+                new MarketDataService(new MarketDataStore(prices, registry), noFeed, tickerMapping, registry, false,
+                        LocalDate.of(2010, 1, 1), 500),
+                new FittedModelCache(registry, 10_000, Duration.ofHours(36), 1_000),
+                new MarketCalendar(ZoneId.of("America/New_York"), LocalTime.of(16, 30)),
+                new FireProjectionEngine(),
+                registry);
+
+        // FireService reads the caller's token from the security context; share one across JMH threads
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bench", "bench-token", List.of()));
+
+        // Seeds the analysis cache and the fit used by the first two benchmarks
+        fireService.consultPythonMotor(payload(1_500, 600_000));
+    }
+
+    @TearDown
+    public void tearDown() {
+        motor.stop(0);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public FireResponse analysisCacheHit() {
+        return fireService.consultPythonMotor(payload(1_500, 600_000));
+    }
+
+    @Benchmark
+    public FireResponse fittedModelAnswer() {
+        return fireService.consultPythonMotor(payload(1_000 + sequence++ % 100_000, 600_000));
+    }
+
+    @Benchmark
+    public FireResponse motorRoundTrip() {
+        return fireService.consultPythonMotor(payload(1_500, 1 + sequence++ % 999_999));
+    }
+
+    // Weights are per million, so every msftWeight is a distinct allocation mix
+    private static Map<String, Object> payload(long monthlySavings, long msftWeight) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("years_to_retirement", 20);
+        payload.put("current_value", 50_000);
+        payload.put("monthly_retirement_goal", 3_000);
+        payload.put("monthly_savings", monthlySavings);
+        payload.put("allocations", Map.of("AAPL", 1_000_000 - msftWeight, "MSFT", msftWeight));
+        return payload;
+    }
+}
@@ -0,0 +1,113 @@
+package com.fireproject.bench;
+
+import com.fireproject.engine.GrowthModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-portfolio cost of fit_growth_model. {@code refitEveryFold} does what the motor does with
+ * sklearn (one full fit plus a refit per TimeSeriesSplit fold, each a pass over the data);
+ * {@code buildAndFit} builds the prefix sums from scratch; {@code appendDayAndFit} is the daily
+ * steady state, one new return on a model that already holds the history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrowthModelBenchmark {
+
+    private static final double CURRENT_VALUE = 250_000;
+
+    // About 15 years of trading days, the motor's default history since 2010
+    @Param("3900")
+    public int days;
+
+    private double[] returns;
+    private GrowthModel history;
+    private double nextReturn;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        returns = new double[days];
+        for (int i = 0; i < days; i++) {
+            returns[i] = 0.0003 + 0.011 * random.nextGaussian();
+        }
+        nextReturn = 0.0004;
+    }
+
+    // A fresh model per iteration so appendDayAndFit does not grow without bound
+    @Setup(Level.Iteration)
+    public void buildHistory() {
+        history = new GrowthModel(returns);
+    }
+
+    @Benchmark
+    public double refitEveryFold() {
+        int n = returns.length;
+        double[] y = new double[n];
+        double cumulative = 1;
+        for (int i = 0; i < n; i++) {
+            cumulative *= 1 + returns[i];
+            y[i] = Math.log(Math.max(cumulative * CURRENT_VALUE, 1.0));
+        }
+        double[] full = ols(y, 0, n);
+        double inSample = r2(y, 0, n, full);
+        int testSize = n / 4;
+        double cv = 0;
+        for (int start = n - 3 * testSize; start < n; start += testSize) {
+            cv += r2(y, start, start + testSize, ols(y, 0, start));
+        }
+        return inSample * 0.7 + Math.max(0, cv / 3) * 0.3 + full[1];
+    }
+
+    @Benchmark
+    public GrowthModel.Fit buildAndFit() {
+        return new GrowthModel(returns).fit(CURRENT_VALUE);
+    }
+
+    @Benchmark
+    public GrowthModel.Fit appendDayAndFit() {
+        history.append(nextReturn);
+        return history.fit(CURRENT_VALUE);
+    }
+
+    private static double[] ols(double[] y, int from, int to) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = from; i < to; i++) {
+            meanX += i;
+            meanY += y[i];
+        }
+        meanX /= to - from;
+        meanY /= to - from;
+        double sxy = 0;
+        double sxx = 0;
+        for (int i = from; i < to; i++) {
+            sxy += (i - meanX) * (y[i] - meanY);
+            sxx += (i - meanX) * (i - meanX);
+        }
+        double slope = sxy / sxx;
+        return new double[] {meanY - slope * meanX, slope};
+    }
+
+    private static double r2(double[] y, int from, int to, double[] line) {
+        double meanY = 0;
+        for (int i = from; i < to; i++) {
+            meanY += y[i];
+        }
+        meanY /= to - from;
+        double ssRes = 0;
+        double ssTot = 0;
+        for (int i = from; i < to; i++) {
+            double residual = y[i] - (line[0] + line[1] * i);
+            ssRes += residual * residual;
+            ssTot += (y[i] - meanY) * (y[i] - meanY);
+        }
+        return 1 - ssRes / ssTot;
+    }
+}
@@ -0,0 +1,68 @@
+package com.fireproject.bench;
+
+import com.fireproject.dto.FireResponse;
+import com.fireproject.dto.SimulationResult;
+import com.fireproject.engine.FireProjectionEngine;
+import com.fireproject.engine.MonteCarloSimulator;
+import com.fireproject.model.portfolio.PortfolioKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process projection math: the deterministic compounding FireProjectionEngine uses to
+ * answer what-ifs from a cached fit, and a Monte Carlo run of the /simulate default size on
+ * one thread and on every core.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private FireProjectionEngine engine;
+    private PortfolioKey key;
+
+    @Setup
+    public void setup() {
+        engine = new FireProjectionEngine();
+        key = new PortfolioKey(30, 50_000, 4_000, 1_500, new TreeMap<>(Map.of("AAPL", 0.6, "MSFT", 0.4)));
+    }
+
+    @Benchmark
+    public FireResponse deterministicProjection() {
+        return engine.analyze(key, 0.0612, 0.81);
+    }
+
+    @Benchmark
+    public SimulationResult monteCarlo(Simulation simulation) {
+        return simulation.simulator.simulate(simulation.scenario);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Simulation {
+
+        // 0 uses every available core, like fire.simulation.parallelism's default
+        @Param({"1", "0"})
+        public int parallelism;
+
+        private MonteCarloSimulator simulator;
+        private MonteCarloSimulator.Scenario scenario;
+
+        @Setup
+        public void setup() {
+            simulator = new MonteCarloSimulator(parallelism);
+            scenario = new MonteCarloSimulator.Scenario(50_000, 1_500, FireProjectionEngine.fireTarget(4_000), 30,
+                    0.06, 0.18, 10_000, 42L);
+        }
+
+        @TearDown
+        public void tearDown() {
+            simulator.shutdown();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.fireproject.bench;
+
+import com.fireproject.infra.security.CachingPrincipalResolver;
+import com.fireproject.infra.security.ClaimsPrincipalResolver;
+import com.fireproject.infra.security.PrincipalResolver;
+import com.fireproject.infra.security.SecurityFilter;
+import com.fireproject.infra.security.TokenService;
+import com.fireproject.model.user.User;
+import com.fireproject.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of SecurityFilter for an authenticated call: header parsing, token
+ * verification (cached after the first request) and principal resolution. {@code principals}
+ * picks the resolver: {@code claims} builds the user from the token, {@code cache} is the
+ * Caffeine-backed lookup, {@code repository} asks the UserRepository on every request, as the
+ * filter originally did. The repository is a Mockito mock, so that variant measures the
+ * lookup's overhead on the bridge side, not a database round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityFilterBenchmark {
+
+    @Param({"claims", "cache", "repository"})
+    public String principals;
+
+    private SecurityFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setup() {
+        TokenService tokenService = new TokenService("bench-secret-12345", 10_000);
+        User user = new User("bench", "bench@fire.com", "ignored");
+        user.setId(42L);
+
+        UserRepository repository = Mockito.mock(UserRepository.class);
+        Mockito.when(repository.findByUsername("bench")).thenReturn(user);
+        PrincipalResolver resolver = switch (principals) {
+            case "claims" -> new ClaimsPrincipalResolver();
+            case "cache" -> new CachingPrincipalResolver(repository, new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(5));
+            case "repository" -> token -> (User) repository.findByUsername(token.subject());
+            default -> throw new IllegalArgumentException(principals);
+        };
+
+        filter = new SecurityFilter(tokenService, resolver, new SimpleMeterRegistry());
+
+        request = new MockHttpServletRequest("POST", "/api/v1/fire/analyze");
+        request.addHeader("Authorization", "Bearer " + tokenService.generateToken(user));
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        filter.doFilter(request, response, chain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,68 @@
+package com.fireproject.bench;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fireproject.infra.security.TokenService;
+import com.fireproject.model.user.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token. {@code rebuildVerifierPerCall}
+ * reproduces the original TokenService.getSubject, which built a new Algorithm and
+ * JWTVerifier for every request; {@code sharedVerifier} is the verify cost on a cache
+ * miss and {@code cachedToken} the steady state for a client reusing its token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private static final String SECRET = "bench-secret-12345";
+
+    private TokenService cachingService;
+    private JWTVerifier sharedVerifier;
+    private String token;
+
+    @Setup
+    public void setup() {
+        cachingService = new TokenService(SECRET, 10_000);
+        sharedVerifier = JWT.require(Algorithm.HMAC256(SECRET)).withIssuer("fire project").build();
+
+        User user = new User("bench", "bench@fire.com", "ignored");
+        user.setId(42L);
+        token = cachingService.generateToken(user);
+    }
+
+    @Benchmark
+    public String rebuildVerifierPerCall() {
+        Algorithm algorithm = Algorithm.HMAC256(SECRET);
+        return JWT.require(algorithm)
+                .withIssuer("fire project")
+                .build()
+                .verify(token)
+                .getSubject();
+    }
+
+    @Benchmark
+    public String sharedVerifier() {
+        return sharedVerifier.verify(token).getSubject();
+    }
+
+    @Benchmark
+    public String cachedToken() {
+        return cachingService.getSubject(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        User user = new User("bench", "bench@fire.com", "ignored");
+        user.setId(42L);
+        return cachingService.generateToken(user);
+    }
+}
@@ -0,0 +1,115 @@
+package com.fireproject.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fireproject.dto.FireResponse;
+import com.fireproject.dto.PortfolioRequest;
+import com.fireproject.model.portfolio.PortfolioKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the bridge-to-motor hop's encoding, for one analysis and for a 1,000-portfolio batch.
+ * {@code mapJson} is the untyped payload the bridge used to send; {@code typedJson} and
+ * {@code typedCbor} encode the {@link PortfolioRequest} record; the response benchmarks encode
+ * and decode one {@link FireResponse}. The encoded size of each variant is printed once per
+ * trial, since JMH only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private FireResponse response;
+    private byte[] jsonResponse;
+    private byte[] cborResponse;
+
+    @Setup
+    public void setup() throws Exception {
+        json = new ObjectMapper();
+        cbor = json.copyWith(new CBORFactory());
+        response = new FireResponse(12.0, 0.0, true, 1_210_345.67, 50_000.0, 1_200_000.0,
+                1_210_345.67, 20.0, 1_500.0, 0.8123, null, 0.0612, 0.1745, null);
+        jsonResponse = json.writeValueAsBytes(response);
+        cborResponse = cbor.writeValueAsBytes(response);
+        System.out.printf("%nresponse: JSON %d B, CBOR %d B%n", jsonResponse.length, cborResponse.length);
+    }
+
+    @Benchmark
+    public byte[] mapJson(Requests requests) throws Exception {
+        return json.writeValueAsBytes(requests.mapPayload);
+    }
+
+    @Benchmark
+    public byte[] typedJson(Requests requests) throws Exception {
+        return json.writeValueAsBytes(requests.typedPayload);
+    }
+
+    @Benchmark
+    public byte[] typedCbor(Requests requests) throws Exception {
+        return cbor.writeValueAsBytes(requests.typedPayload);
+    }
+
+    @Benchmark
+    public byte[] writeJsonResponse() throws Exception {
+        return json.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writeCborResponse() throws Exception {
+        return cbor.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public FireResponse readJsonResponse() throws Exception {
+        return json.readValue(jsonResponse, FireResponse.class);
+    }
+
+    @Benchmark
+    public FireResponse readCborResponse() throws Exception {
+        return cbor.readValue(cborResponse, FireResponse.class);
+    }
+
+    // Only the request benchmarks vary with the batch size
+    @State(Scope.Benchmark)
+    public static class Requests {
+
+        @Param({"1", "1000"})
+        public int portfolios;
+
+        private Object mapPayload;
+        private Object typedPayload;
+
+        @Setup
+        public void setup() throws Exception {
+            List<Map<String, Object>> maps = new ArrayList<>();
+            List<PortfolioRequest> requests = new ArrayList<>();
+            for (int i = 0; i < portfolios; i++) {
+                TreeMap<String, Double> allocations = new TreeMap<>();
+                allocations.put("AAPL", 0.4);
+                allocations.put("MSFT", 0.35);
+                allocations.put("WALMEX.MX", 0.25);
+                PortfolioKey key = new PortfolioKey(20 + i % 20, 50_000 + i * 125.5, 3_000, 1_500 + i % 7 * 100, allocations);
+                maps.add(key.toPayload());
+                requests.add(PortfolioRequest.from(key));
+            }
+            mapPayload = portfolios == 1 ? maps.get(0) : maps;
+            typedPayload = portfolios == 1 ? requests.get(0) : requests;
+
+            ObjectMapper json = new ObjectMapper();
+            System.out.printf("%n%d portfolio(s): map JSON %d B, typed JSON %d B, typed CBOR %d B%n",
+                    portfolios, json.writeValueAsBytes(mapPayload).length, json.writeValueAsBytes(typedPayload).length,
+                    json.copyWith(new CBORFactory()).writeValueAsBytes(typedPayload).length);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.fireproject.controller;
+
+import com.fireproject.dto.AnalysisHistoryPage;
+import com.fireproject.service.AnalysisHistoryService;
+import com.fireproject.service.AnalysisHistoryWriter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/fire/history")
+@SecurityRequirement(name = "bearer-key")
+public class AnalysisHistoryController {
+
+    private final AnalysisHistoryService analysisHistoryService;
+
+    public AnalysisHistoryController(AnalysisHistoryService analysisHistoryService) {
+        this.analysisHistoryService = analysisHistoryService;
+    }
+
+    @GetMapping
+    public ResponseEntity<AnalysisHistoryPage> history(
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(analysisHistoryService.page(AnalysisHistoryWriter.currentUserId(), page, size));
+    }
+}
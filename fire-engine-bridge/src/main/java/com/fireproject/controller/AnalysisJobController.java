@@ -0,0 +1,41 @@
+package com.fireproject.controller;
+
+import com.fireproject.dto.JobStatus;
+import com.fireproject.service.AnalysisJobService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/v1/fire/jobs")
+@SecurityRequirement(name = "bearer-key")
+public class AnalysisJobController {
+
+    private final AnalysisJobService analysisJobService;
+
+    public AnalysisJobController(AnalysisJobService analysisJobService) {
+        this.analysisJobService = analysisJobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<JobStatus> submit(@RequestBody Map<String, Object> payload, Locale locale) {
+        JobStatus status = analysisJobService.submit(payload, locale);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/fire/jobs/" + status.jobId()))
+                .body(status);
+    }
+
+    // wait > 0 long-polls: the response is sent when the job finishes or the wait runs out
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<JobStatus>> status(
+            @PathVariable String id,
+            @RequestParam(name = "wait", defaultValue = "0") long waitSeconds) {
+        return analysisJobService.await(id, Duration.ofSeconds(waitSeconds)).thenApply(ResponseEntity::ok);
+    }
+}
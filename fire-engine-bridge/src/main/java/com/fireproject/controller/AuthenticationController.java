@@ -3,16 +3,19 @@ package com.fireproject.controller;
 import com.fireproject.infra.security.JWTTokenData;
 import com.fireproject.model.user.UserAuthenticationData;
 import com.fireproject.model.user.UserRegistrationData;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.transaction.annotation.Transactional;
 import com.fireproject.repository.UserRepository;
 import com.fireproject.infra.security.TokenService;
 import com.fireproject.model.user.User;
+import com.fireproject.model.user.UserChangedEvent;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.List;
 import java.util.Locale;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -35,42 +38,61 @@ public class AuthenticationController {
 	private final PasswordEncoder passwordEncoder;
 	private final TokenService tokenService;
 	private final UserRepository userRepository;
+	private final ApplicationEventPublisher eventPublisher;
 
 	public AuthenticationController(
 			AuthenticationManager authenticationManager,
 			MessageSource messageSource,
 			PasswordEncoder passwordEncoder,
 			TokenService tokenService,
-			UserRepository userRepository) {
+			UserRepository userRepository,
+			ApplicationEventPublisher eventPublisher) {
 		this.authenticationManager = authenticationManager;
 		this.messageSource = messageSource;
 		this.passwordEncoder = passwordEncoder;
 		this.tokenService = tokenService;
 		this.userRepository = userRepository;
+		this.eventPublisher = eventPublisher;
 	}
 
+	// No surrounding transaction: the BCrypt hash must not hold a pooled connection,
+	// and the unique constraints on username/email are the final guard against races
 	@PostMapping("/register")
-	@Transactional
 	public ResponseEntity<String> registerUser(@RequestBody @Valid UserRegistrationData data, Locale locale) {
 
-		if (userRepository.findByUsername(data.username()) != null) {
-			String errorMsg = messageSource.getMessage("user.register.error.username_taken", null, locale);
-			return ResponseEntity.badRequest().body(errorMsg);
-		}
-
-		if (userRepository.findByEmail(data.email()) != null) {
-			String errorMsg = messageSource.getMessage("user.register.error.email_taken", null, locale);
-			return ResponseEntity.badRequest().body(errorMsg);
+		String conflict = conflictKey(data);
+		if (conflict != null) {
+			return ResponseEntity.badRequest().body(messageSource.getMessage(conflict, null, locale));
 		}
 
 		String encryptedPassword = passwordEncoder.encode(data.password());
 		User newUser = new User(data.username(), data.email(), encryptedPassword);
-		userRepository.save(newUser);
+		try {
+			userRepository.saveAndFlush(newUser);
+		} catch (DataIntegrityViolationException e) {
+			// A concurrent registration won the race between the check and the insert
+			conflict = conflictKey(data);
+			String key = conflict != null ? conflict : "user.register.error.username_taken";
+			return ResponseEntity.badRequest().body(messageSource.getMessage(key, null, locale));
+		}
+		eventPublisher.publishEvent(new UserChangedEvent(newUser.getUsername()));
 
 		String successMsg = messageSource.getMessage("user.register.success", null, locale);
 		return ResponseEntity.ok(successMsg);
 	}
 
+	private String conflictKey(UserRegistrationData data) {
+		List<User> existing = userRepository.findByUsernameOrEmail(data.username(), data.email());
+		// Same rule as MySQL's default collation, which found the row case-insensitively
+		if (existing.stream().anyMatch(user -> data.username().equalsIgnoreCase(user.getUsername()))) {
+			return "user.register.error.username_taken";
+		}
+		if (!existing.isEmpty()) {
+			return "user.register.error.email_taken";
+		}
+		return null;
+	}
+
 	@PostMapping("/login")
 	public ResponseEntity logUser(@RequestBody @Valid UserAuthenticationData data, Locale locale) {
 		try {
@@ -1,11 +1,28 @@
 package com.fireproject.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fireproject.dto.BatchItemResult;
 import com.fireproject.dto.FireResponse;
+import com.fireproject.dto.PortfolioRequest;
+import com.fireproject.dto.SensitivityGridResult;
+import com.fireproject.dto.SimulationResult;
+import com.fireproject.service.BatchAnalysisService;
 import com.fireproject.service.FireService;
+import com.fireproject.service.SensitivityGridService;
+import com.fireproject.service.SimulationService;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/fire")
@@ -13,14 +30,87 @@ import java.util.Map;
 public class FireController {
 
     private final FireService fireService;
+    private final BatchAnalysisService batchAnalysisService;
+    private final SimulationService simulationService;
+    private final SensitivityGridService sensitivityGridService;
+    private final ObjectMapper objectMapper;
 
-    public FireController(FireService fireService) {
+    public FireController(
+            FireService fireService,
+            BatchAnalysisService batchAnalysisService,
+            SimulationService simulationService,
+            SensitivityGridService sensitivityGridService,
+            ObjectMapper objectMapper) {
         this.fireService = fireService;
+        this.batchAnalysisService = batchAnalysisService;
+        this.simulationService = simulationService;
+        this.sensitivityGridService = sensitivityGridService;
+        this.objectMapper = objectMapper;
     }
 
+    // Async request processing: with python.api.transport=async the servlet thread returns to
+    // Tomcat while the motor computes and the response is written when the future completes
     @PostMapping("/analyze")
-    public ResponseEntity<FireResponse> analyze(@RequestBody Map<String, Object> payload) {
-        FireResponse response = fireService.consultPythonMotor(payload);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<FireResponse>> analyze(@RequestBody @Valid PortfolioRequest request) {
+        return fireService.consultPythonMotorAsync(request).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/analyze/batch")
+    public ResponseEntity<List<BatchItemResult>> analyzeBatch(@RequestBody List<Map<String, Object>> payloads, Locale locale) {
+        return ResponseEntity.ok(batchAnalysisService.analyzeAll(payloads, locale));
+    }
+
+    @PostMapping(value = "/analyze/batch", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamBatch(
+            @RequestBody List<Map<String, Object>> payloads,
+            @RequestHeader(HttpHeaders.ACCEPT) String accept,
+            Locale locale) {
+        batchAnalysisService.checkSize(payloads);
+        boolean sse = prefersEventStream(accept);
+
+        StreamingResponseBody body = out -> {
+            try {
+                batchAnalysisService.stream(payloads, locale, item -> {
+                    byte[] json = objectMapper.writeValueAsBytes(item);
+                    if (sse) {
+                        out.write("event: result\ndata: ".getBytes(StandardCharsets.UTF_8));
+                        out.write(json);
+                        out.write("\n\n".getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        out.write(json);
+                        out.write('\n');
+                    }
+                    out.flush();
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(sse ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @PostMapping("/simulate")
+    public ResponseEntity<SimulationResult> simulate(@RequestBody Map<String, Object> payload) {
+        return ResponseEntity.ok(simulationService.simulate(payload));
+    }
+
+    @PostMapping("/grid")
+    public ResponseEntity<SensitivityGridResult> grid(@RequestBody Map<String, Object> payload) {
+        return ResponseEntity.ok(sensitivityGridService.evaluate(payload));
+    }
+
+    private static boolean prefersEventStream(String accept) {
+        for (MediaType type : MediaType.parseMediaTypes(accept)) {
+            if (MediaType.APPLICATION_NDJSON.isCompatibleWith(type) && !type.isWildcardType()) {
+                return false;
+            }
+            if (MediaType.TEXT_EVENT_STREAM.isCompatibleWith(type) && !type.isWildcardType()) {
+                return true;
+            }
+        }
+        return false;
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.fireproject.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public record AnalysisHistoryPage(
+        @JsonProperty("items") List<Item> items,
+        @JsonProperty("page") int page,
+        @JsonProperty("size") int size,
+        @JsonProperty("total_elements") long totalElements,
+        @JsonProperty("total_pages") int totalPages
+) {
+    public record Item(
+            @JsonProperty("id") Long id,
+            @JsonProperty("created_at") Instant createdAt,
+            @JsonProperty("request") Map<String, Object> request,
+            @JsonProperty("result") FireResponse result
+    ) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.fireproject.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(
+        @JsonProperty("index") int index,
+        @JsonProperty("result") FireResponse result,
+        @JsonProperty("error") String error
+) {
+    public static BatchItemResult success(int index, FireResponse result) {
+        return new BatchItemResult(index, result, null);
+    }
+
+    public static BatchItemResult failure(int index, String error) {
+        return new BatchItemResult(index, null, error);
+    }
+}
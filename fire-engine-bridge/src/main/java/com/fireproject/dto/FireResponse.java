@@ -1,5 +1,6 @@
 package com.fireproject.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public record FireResponse(
@@ -12,8 +13,37 @@ public record FireResponse(
         @JsonProperty("final_estimated_value") Double finalEstimatedValue,
         @JsonProperty("years_simulated") Double yearsSimulated,
         @JsonProperty("monthly_savings") Double monthlySavings,
-        @JsonProperty("confidence_score") Double confidenceScore
+        @JsonProperty("confidence_score") Double confidenceScore,
+        @JsonProperty("monthly_needed") @JsonInclude(JsonInclude.Include.NON_NULL) Double monthlyNeeded,
+        @JsonProperty("annual_return") @JsonInclude(JsonInclude.Include.NON_NULL) Double annualReturn,
+        @JsonProperty("annual_volatility") @JsonInclude(JsonInclude.Include.NON_NULL) Double annualVolatility,
+        @JsonProperty("stale") @JsonInclude(JsonInclude.Include.NON_NULL) Boolean stale
 ) {
+    public FireResponse(Double yearsToReachGoal, Double shortfall, Boolean reached, Double finalValue,
+                        Double currentVal, Double fireTarget, Double finalEstimatedValue, Double yearsSimulated,
+                        Double monthlySavings, Double confidenceScore) {
+        this(yearsToReachGoal, shortfall, reached, finalValue, currentVal, fireTarget, finalEstimatedValue,
+                yearsSimulated, monthlySavings, confidenceScore, null, null, null, null);
+    }
+
+    /** Copy flagged as a last-known-good answer served while the motor is unavailable. */
+    public FireResponse asStale() {
+        return new FireResponse(yearsToReachGoal, shortfall, reached, finalValue, currentVal, fireTarget,
+                finalEstimatedValue, yearsSimulated, monthlySavings, confidenceScore, monthlyNeeded, annualReturn,
+                annualVolatility, true);
+    }
+
+    /** Copy carrying the fitted volatility, which the local projection does not compute. */
+    public FireResponse withAnnualVolatility(Double volatility) {
+        return new FireResponse(yearsToReachGoal, shortfall, reached, finalValue, currentVal, fireTarget,
+                finalEstimatedValue, yearsSimulated, monthlySavings, confidenceScore, monthlyNeeded, annualReturn,
+                volatility, stale);
+    }
+
+    public boolean isStale() {
+        return Boolean.TRUE.equals(stale);
+    }
+
     public double safeFinalValue() {
         return finalValue != null ? finalValue : 0.0;
     }
@@ -0,0 +1,17 @@
+package com.fireproject.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record JobStatus(
+        @JsonProperty("job_id") String jobId,
+        @JsonProperty("status") String status,
+        @JsonProperty("submitted_at") Instant submittedAt,
+        @JsonProperty("queue_wait_ms") Long queueWaitMs,
+        @JsonProperty("result") FireResponse result,
+        @JsonProperty("error") String error
+) {
+}
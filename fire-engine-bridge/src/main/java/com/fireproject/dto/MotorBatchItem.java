@@ -0,0 +1,14 @@
+package com.fireproject.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One entry of the motor's /analyze/batch answer: either the analysis or, when that portfolio
+ * alone failed, the status and detail its single /analyze call would have returned.
+ */
+public record MotorBatchItem(
+        @JsonProperty("result") FireResponse result,
+        @JsonProperty("status") Integer status,
+        @JsonProperty("detail") String detail
+) {
+}
@@ -0,0 +1,45 @@
+package com.fireproject.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fireproject.model.portfolio.PortfolioKey;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.Map;
+
+/**
+ * Body of an analysis request, field for field the motor's PortfolioRequest schema. It is
+ * validated when it enters the bridge and sent to the motor as is, in CBOR or JSON.
+ * <p>
+ * The constraints are the ones the canonicalizer already enforced on the raw map; the positive
+ * total weight of the allocations is still checked there. {@code years_to_retirement} is read as
+ * a number so a fractional value is rejected instead of silently truncated, as pydantic does for
+ * an {@code int} field. At least one year is required: the motor indexes the last projected
+ * year and the local fit path rejects an empty horizon too.
+ */
+public record PortfolioRequest(
+        @JsonProperty("years_to_retirement") @NotNull(message = "{error.portfolio.invalid}")
+        @Positive(message = "{error.portfolio.invalid}")
+        @Max(value = PortfolioKey.MAX_YEARS_TO_RETIREMENT, message = "{error.portfolio.invalid}") Double yearsToRetirement,
+        @JsonProperty("current_value") @NotNull(message = "{error.portfolio.invalid}") Double currentValue,
+        @JsonProperty("monthly_retirement_goal") @NotNull(message = "{error.portfolio.invalid}") Double monthlyRetirementGoal,
+        @JsonProperty("monthly_savings") @NotNull(message = "{error.portfolio.invalid}") Double monthlySavings,
+        @JsonProperty("allocations") @NotEmpty(message = "{error.portfolio.invalid}")
+        Map<String, @NotNull(message = "{error.portfolio.invalid}") Double> allocations
+) {
+    @JsonIgnore
+    @AssertTrue(message = "{error.portfolio.invalid}")
+    public boolean isWholeYears() {
+        return yearsToRetirement == null || yearsToRetirement == Math.rint(yearsToRetirement);
+    }
+
+    /** The canonical portfolio as the motor receives it. */
+    public static PortfolioRequest from(PortfolioKey key) {
+        return new PortfolioRequest((double) key.yearsToRetirement(), key.currentValue(),
+                key.monthlyRetirementGoal(), key.monthlySavings(), key.allocations());
+    }
+}
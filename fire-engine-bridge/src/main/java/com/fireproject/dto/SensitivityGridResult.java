@@ -0,0 +1,17 @@
+package com.fireproject.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Dense what-if grid. Matrices are indexed [goal][savings][horizon] and follow the
+ * motor's conventions: years_to_goal equals the horizon when the goal is not reached.
+ */
+public record SensitivityGridResult(
+        @JsonProperty("annual_return") double annualReturn,
+        @JsonProperty("monthly_retirement_goal") double[] monthlyRetirementGoals,
+        @JsonProperty("monthly_savings") double[] monthlySavings,
+        @JsonProperty("years_to_retirement") int[] yearsToRetirement,
+        @JsonProperty("years_to_goal") int[][][] yearsToGoal,
+        @JsonProperty("shortfall") double[][][] shortfall
+) {
+}
@@ -0,0 +1,17 @@
+package com.fireproject.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record SimulationResult(
+        @JsonProperty("paths") int paths,
+        @JsonProperty("seed") long seed,
+        @JsonProperty("annual_return") double annualReturn,
+        @JsonProperty("annual_volatility") double annualVolatility,
+        @JsonProperty("fire_target") double fireTarget,
+        @JsonProperty("success_probability") double successProbability,
+        @JsonProperty("percentiles") double[] percentiles,
+        @JsonProperty("final_value_bands") double[] finalValueBands,
+        @JsonProperty("reached_by_year") long[] reachedByYear,
+        @JsonProperty("never_reached") long neverReached
+) {
+}
@@ -0,0 +1,148 @@
+package com.fireproject.engine;
+
+import com.fireproject.dto.FireResponse;
+import com.fireproject.model.portfolio.PortfolioKey;
+import jakarta.validation.ValidationException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * In-process port of the motor's deterministic stage: the year-by-year compounding in
+ * project_balances, time_to_FIRE and calculate_monthly_needed. Given the fitted annual
+ * return it reproduces the motor's response bit for bit, so what-if questions on
+ * savings or goal never leave the JVM.
+ */
+@Component
+public class FireProjectionEngine {
+
+    /** Upper bound the motor applies to any fitted CAGR. */
+    public static final double CAGR_CAP = 0.07;
+    /** 4% rule: the portfolio must cover 25 years of expenses. */
+    public static final int FIRE_MULTIPLE = 25;
+
+    private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10};
+    private static final ThreadLocal<double[]> SCRATCH =
+            ThreadLocal.withInitial(() -> new double[PortfolioKey.MAX_YEARS_TO_RETIREMENT]);
+
+    public static double fireTarget(double monthlyRetirementGoal) {
+        return FIRE_MULTIPLE * (12 * monthlyRetirementGoal);
+    }
+
+    public static double cap(double annualReturn) {
+        return Math.min(annualReturn, CAGR_CAP);
+    }
+
+    /**
+     * Fills {@code out[0..years)} with the balance at the end of each year.
+     * Same operation order as the Python loop so rounding matches exactly.
+     */
+    public static void project(double currentValue, double monthlySavings, double annualReturn, int years, double[] out) {
+        double growth = 1 + annualReturn;
+        double yearlyContribution = monthlySavings * 12;
+        double balance = currentValue;
+        for (int i = 0; i < years; i++) {
+            balance *= growth;
+            balance += yearlyContribution;
+            out[i] = balance;
+        }
+    }
+
+    /**
+     * Years until {@code path} reaches the target: 0 when the first year already covers it,
+     * otherwise the 1-based year of the first crossing, or -1 when it is never reached.
+     */
+    public static int yearsToReach(double[] path, int years, double fireTarget) {
+        if (years == 0) {
+            return -1;
+        }
+        if (fireTarget <= path[0]) {
+            return 0;
+        }
+        for (int i = 0; i < years; i++) {
+            if (path[i] >= fireTarget) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    public FireResponse analyze(PortfolioKey key, double annualReturn, double confidenceScore) {
+        int years = key.yearsToRetirement();
+        if (years < 1) {
+            throw new ValidationException("error.portfolio.invalid");
+        }
+        double[] path = scratch(years);
+        double rate = cap(annualReturn);
+        project(key.currentValue(), key.monthlySavings(), rate, years, path);
+        return evaluate(path, years, fireTarget(key.monthlyRetirementGoal()),
+                key.currentValue(), key.monthlySavings(), confidenceScore, rate);
+    }
+
+    /** Mirrors time_to_FIRE followed by the result enrichment in FireEngine.run_analysis. */
+    public FireResponse evaluate(double[] path, int years, double fireTarget, double currentValue,
+                                 double monthlySavings, double confidenceScore, double annualReturn) {
+        double lastValue = path[years - 1];
+        double finalEstimatedValue = pyRound(lastValue, 2);
+        int reachedIn = yearsToReach(path, years, fireTarget);
+
+        if (reachedIn >= 0) {
+            return new FireResponse((double) reachedIn, 0.0, true, finalEstimatedValue, currentValue, fireTarget,
+                    finalEstimatedValue, (double) years, monthlySavings, confidenceScore, null, annualReturn, null, null);
+        }
+
+        double maxValue = path[0];
+        for (int i = 1; i < years; i++) {
+            maxValue = Math.max(maxValue, path[i]);
+        }
+        return new FireResponse((double) years, fireTarget - finalEstimatedValue, false, pyRound(maxValue, 2),
+                currentValue, fireTarget, finalEstimatedValue, (double) years, monthlySavings, confidenceScore,
+                monthlyNeeded(fireTarget, years, finalEstimatedValue), annualReturn, null, null);
+    }
+
+    /** Linear fill of the shortfall over the remaining months, as calculate_monthly_needed does. */
+    public static double monthlyNeeded(double fireTarget, double years, double projectedFinalValue) {
+        double months = years * 12;
+        if (months <= 0) {
+            return 0;
+        }
+        double shortfall = fireTarget - projectedFinalValue;
+        if (shortfall <= 0) {
+            return 0;
+        }
+        return pyRound(shortfall / months, 2);
+    }
+
+    /**
+     * Python's round(x, n): half-even on the exact binary value. The scaled value and its exact
+     * rounding error (one fma) decide the direction without allocating; only magnitudes whose
+     * scaled value no longer fits 52 bits, far beyond any portfolio, take the BigDecimal path.
+     */
+    public static double pyRound(double value, int digits) {
+        double scale = POW10[digits];
+        double scaled = value * scale;
+        if (!(Math.abs(scaled) < 0x1p52)) {
+            return Double.isFinite(value)
+                    ? new BigDecimal(value).setScale(digits, RoundingMode.HALF_EVEN).doubleValue()
+                    : value;
+        }
+        // value * scale == scaled + error exactly
+        double error = Math.fma(value, scale, -scaled);
+        double floor = Math.floor(scaled);
+        // Exact: the fraction and 0.5 share the grid of scaled, whose ulp is larger than |error|
+        double aboveHalf = (scaled - floor) - 0.5;
+        int direction = aboveHalf != 0 ? (int) Math.signum(aboveHalf) : (int) Math.signum(error);
+        double rounded = direction < 0 ? floor
+                : direction > 0 || floor % 2 != 0 ? floor + 1
+                : floor;
+        // Nearest double to rounded / 10^digits, as Python's correctly rounded repr gives; never -0.0
+        return rounded / scale + 0.0;
+    }
+
+    private static double[] scratch(int years) {
+        // The pooled buffer never grows, so a long horizon cannot stay pinned to the thread
+        double[] buffer = SCRATCH.get();
+        return buffer.length >= years ? buffer : new double[years];
+    }
+}
@@ -0,0 +1,203 @@
+package com.fireproject.engine;
+
+import java.util.Arrays;
+
+/**
+ * Port of the motor's fit_growth_model: log-linear trend over the cumulative portfolio value,
+ * in-sample R², 3-fold TimeSeriesSplit cross-validation and the conservative
+ * min(regression CAGR, historical CAGR, 7%) rule.
+ * <p>
+ * Instead of refitting, the model keeps prefix sums of y, y² and x·y over the log cumulative
+ * return, so every ordinary least squares fit over a prefix and every out-of-sample residual
+ * sum over a fold is a handful of arithmetic operations. Appending a day is O(1) amortized and
+ * {@link #fit} is O(1) as long as the motor's clip at 1.0 does not apply; otherwise the clipped
+ * series is summed once, in O(n).
+ * <p>
+ * Not thread-safe: one instance per portfolio series, appended to by a single writer.
+ */
+public final class GrowthModel {
+
+    public static final int TRADING_DAYS = 252;
+    /** TimeSeriesSplit(n_splits=3) is only run from this many returns on, as in the motor. */
+    public static final int MIN_CV_POINTS = 60;
+    private static final int CV_SPLITS = 3;
+
+    private int size;
+    private double cumulative = 1;
+    private double minLogCumulative = Double.POSITIVE_INFINITY;
+    private double meanReturn;
+    private double squaredDeviations;
+    private double[] logCumulative;
+    // Prefix sums over log(cumulative product): index i covers points [0, i)
+    private double[] sumY;
+    private double[] sumYY;
+    private double[] sumXY;
+
+    public GrowthModel() {
+        this(256);
+    }
+
+    public GrowthModel(double[] dailyReturns) {
+        this(dailyReturns.length + 1);
+        appendAll(dailyReturns, 0, dailyReturns.length);
+    }
+
+    private GrowthModel(int capacity) {
+        logCumulative = new double[capacity];
+        sumY = new double[capacity + 1];
+        sumYY = new double[capacity + 1];
+        sumXY = new double[capacity + 1];
+    }
+
+    /** Adds the next daily return (fraction, not percent). */
+    public void append(double dailyReturn) {
+        if (size + 1 >= sumY.length) {
+            int capacity = sumY.length * 2;
+            logCumulative = Arrays.copyOf(logCumulative, capacity);
+            sumY = Arrays.copyOf(sumY, capacity);
+            sumYY = Arrays.copyOf(sumYY, capacity);
+            sumXY = Arrays.copyOf(sumXY, capacity);
+        }
+        // Same sequential product as numpy's cumprod
+        cumulative *= 1 + dailyReturn;
+        double y = Math.log(cumulative);
+        minLogCumulative = Math.min(minLogCumulative, y);
+        logCumulative[size] = y;
+
+        sumY[size + 1] = sumY[size] + y;
+        sumYY[size + 1] = sumYY[size] + y * y;
+        sumXY[size + 1] = sumXY[size] + size * y;
+
+        // Welford update for the sample standard deviation pandas reports
+        size++;
+        double delta = dailyReturn - meanReturn;
+        meanReturn += delta / size;
+        squaredDeviations += delta * (dailyReturn - meanReturn);
+    }
+
+    public void appendAll(double[] dailyReturns, int from, int to) {
+        for (int i = from; i < to; i++) {
+            append(dailyReturns[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Fits the model for a portfolio currently worth {@code currentValue}. The value only shifts
+     * the log series, which leaves slope and every R² unchanged, unless some point of
+     * {@code value * cumulative} falls below 1.0 and is clipped.
+     */
+    public Fit fit(double currentValue) {
+        if (size < 2) {
+            throw new IllegalStateException("Cannot predict future: not enough returns data");
+        }
+        double logValue = Math.log(Math.max(1.0, currentValue));
+        return logValue + minLogCumulative < 0 ? clipped(logValue).fitUnclipped() : fitUnclipped();
+    }
+
+    private Fit fitUnclipped() {
+        int n = size;
+        double slope = slope(n);
+        double inSampleR2 = r2(residuals(n, slope), centeredYY(0, n));
+
+        double cvR2 = inSampleR2;
+        if (n >= MIN_CV_POINTS) {
+            // sklearn TimeSeriesSplit: test folds of n // (splits + 1) at the end of the series
+            int testSize = n / (CV_SPLITS + 1);
+            double scores = 0;
+            for (int start = n - CV_SPLITS * testSize; start < n; start += testSize) {
+                scores += outOfSampleR2(start, testSize);
+            }
+            cvR2 = scores / CV_SPLITS;
+        }
+
+        double confidence = FireProjectionEngine.pyRound(inSampleR2 * 0.7 + Math.max(0, cvR2) * 0.3, 4);
+        double regressionReturn = Math.exp(slope * TRADING_DAYS) - 1;
+        double historicalReturn = Math.pow(1 + meanReturn, TRADING_DAYS) - 1;
+        double annualReturn = Math.min(Math.min(regressionReturn, historicalReturn), FireProjectionEngine.CAGR_CAP);
+        double volatility = Math.sqrt(squaredDeviations / (n - 1)) * Math.sqrt(TRADING_DAYS);
+        return new Fit(annualReturn, confidence, regressionReturn, historicalReturn, inSampleR2, cvR2, volatility);
+    }
+
+    // OLS over points [0, n) with x = 0..n-1
+    private double slope(int n) {
+        return centeredXY(0, n) / centeredXX(n);
+    }
+
+    private double residuals(int n, double slope) {
+        return Math.max(0, centeredYY(0, n) - slope * centeredXY(0, n));
+    }
+
+    /** Score of the model trained on [0, start) over the fold [start, start + length). */
+    private double outOfSampleR2(int start, int length) {
+        double slope = slope(start);
+        double intercept = (sumY[start] - slope * xSum(start)) / start;
+
+        // Residuals split into the fold's own spread plus the offset between its mean and the line
+        double meanY = (sumY[start + length] - sumY[start]) / length;
+        double meanX = start + (length - 1) / 2.0;
+        double syy = centeredYY(start, start + length);
+        double sxy = centeredXY(start, start + length);
+        double offset = meanY - intercept - slope * meanX;
+        double ssRes = syy - 2 * slope * sxy + slope * slope * centeredXX(length) + length * offset * offset;
+        return r2(ssRes, syy);
+    }
+
+    private double centeredYY(int from, int to) {
+        int m = to - from;
+        double sy = sumY[to] - sumY[from];
+        return Math.max(0, (sumYY[to] - sumYY[from]) - sy * sy / m);
+    }
+
+    // Σ(x - x̄)(y - ȳ) over [from, to); x̄ is taken over the same points
+    private double centeredXY(int from, int to) {
+        int m = to - from;
+        double sy = sumY[to] - sumY[from];
+        double sxy = sumXY[to] - sumXY[from];
+        double meanX = from + (m - 1) / 2.0;
+        return sxy - meanX * sy;
+    }
+
+    // Σ(x - x̄)² for m consecutive integers
+    private static double centeredXX(int m) {
+        return (double) m * ((double) m * m - 1) / 12.0;
+    }
+
+    private static double xSum(int n) {
+        return (double) n * (n - 1) / 2.0;
+    }
+
+    /** sklearn r2_score, including its answer for a constant target. */
+    private static double r2(double ssRes, double ssTot) {
+        if (ssTot == 0) {
+            return ssRes == 0 ? 1.0 : 0.0;
+        }
+        return 1 - ssRes / ssTot;
+    }
+
+    // Rebuilds the sums over log(max(value * cumulative, 1)); only needed when the clip applies
+    private GrowthModel clipped(double logValue) {
+        GrowthModel copy = new GrowthModel(size);
+        copy.size = size;
+        copy.meanReturn = meanReturn;
+        copy.squaredDeviations = squaredDeviations;
+        for (int i = 0; i < size; i++) {
+            double y = Math.max(0, logValue + logCumulative[i]);
+            copy.sumY[i + 1] = copy.sumY[i] + y;
+            copy.sumYY[i + 1] = copy.sumYY[i] + y * y;
+            copy.sumXY[i + 1] = copy.sumXY[i] + i * y;
+        }
+        return copy;
+    }
+
+    /**
+     * Outcome of a fit. {@code annualReturn} and {@code confidenceScore} are the values the motor
+     * reports; the rest are the ingredients, kept for diagnostics and the annual volatility field.
+     */
+    public record Fit(double annualReturn, double confidenceScore, double regressionReturn,
+                      double historicalReturn, double inSampleR2, double cvR2, double annualVolatility) {
+    }
+}
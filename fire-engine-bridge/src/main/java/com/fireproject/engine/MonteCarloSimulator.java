@@ -0,0 +1,159 @@
+package com.fireproject.engine;
+
+import com.fireproject.dto.SimulationResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simulates many retirement paths with log-normally distributed annual returns.
+ * Paths are split across a fork-join pool; every leaf gets its own SplittableRandom
+ * derived from a fixed split tree, so a seed always yields the same result no matter
+ * how many threads run it.
+ */
+@Component
+public class MonteCarloSimulator {
+
+    static final int LEAF_PATHS = 1024;
+    private static final double[] PERCENTILES = {0.05, 0.10, 0.25, 0.50, 0.75, 0.90, 0.95};
+
+    private final ForkJoinPool pool;
+
+    public MonteCarloSimulator(@Value("${fire.simulation.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public SimulationResult simulate(Scenario scenario) {
+        double[] finalValues = new double[scenario.paths()];
+        int[] yearsToFire = new int[scenario.paths()];
+
+        pool.invoke(new PathBatch(scenario, new SplittableRandom(scenario.seed()), 0, scenario.paths(),
+                finalValues, yearsToFire));
+
+        return summarize(scenario, finalValues, yearsToFire);
+    }
+
+    private static SimulationResult summarize(Scenario scenario, double[] finalValues, int[] yearsToFire) {
+        int years = scenario.years();
+        long[] reachedByYear = new long[years + 1];
+        long successes = 0;
+        for (int reachedIn : yearsToFire) {
+            if (reachedIn >= 0) {
+                reachedByYear[reachedIn]++;
+                successes++;
+            }
+        }
+
+        Arrays.parallelSort(finalValues);
+        double[] bands = new double[PERCENTILES.length];
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            bands[i] = percentile(finalValues, PERCENTILES[i]);
+        }
+
+        return new SimulationResult(
+                scenario.paths(),
+                scenario.seed(),
+                scenario.annualReturn(),
+                scenario.annualVolatility(),
+                scenario.fireTarget(),
+                (double) successes / scenario.paths(),
+                PERCENTILES.clone(),
+                bands,
+                reachedByYear,
+                scenario.paths() - successes);
+    }
+
+    /** Linear interpolation between closest ranks, like numpy.percentile's default. */
+    private static double percentile(double[] sorted, double q) {
+        double rank = q * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    /**
+     * Inputs for one simulation. {@code annualReturn} is the arithmetic mean growth,
+     * already capped; {@code annualVolatility} its standard deviation.
+     */
+    public record Scenario(
+            double currentValue,
+            double monthlySavings,
+            double fireTarget,
+            int years,
+            double annualReturn,
+            double annualVolatility,
+            int paths,
+            long seed
+    ) {
+    }
+
+    private static final class PathBatch extends RecursiveAction {
+
+        private final Scenario scenario;
+        private final SplittableRandom random;
+        private final int from;
+        private final int to;
+        private final double[] finalValues;
+        private final int[] yearsToFire;
+
+        PathBatch(Scenario scenario, SplittableRandom random, int from, int to,
+                  double[] finalValues, int[] yearsToFire) {
+            this.scenario = scenario;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+            this.finalValues = finalValues;
+            this.yearsToFire = yearsToFire;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_PATHS) {
+                simulateLeaf();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            // Split before forking so the stream each half receives never depends on scheduling
+            PathBatch left = new PathBatch(scenario, random.split(), from, mid, finalValues, yearsToFire);
+            PathBatch right = new PathBatch(scenario, random, mid, to, finalValues, yearsToFire);
+            invokeAll(left, right);
+        }
+
+        private void simulateLeaf() {
+            // Log-normal parameters chosen so E[growth] = 1 + annualReturn and Var matches the volatility
+            double meanGrowth = 1 + scenario.annualReturn();
+            double sigma2 = Math.log1p(Math.pow(scenario.annualVolatility() / meanGrowth, 2));
+            double sigma = Math.sqrt(sigma2);
+            double mu = Math.log(meanGrowth) - sigma2 / 2;
+
+            double yearlyContribution = scenario.monthlySavings() * 12;
+            double target = scenario.fireTarget();
+            int years = scenario.years();
+
+            for (int p = from; p < to; p++) {
+                double balance = scenario.currentValue();
+                int reachedIn = -1;
+                for (int year = 1; year <= years; year++) {
+                    balance *= Math.exp(mu + sigma * random.nextGaussian());
+                    balance += yearlyContribution;
+                    if (reachedIn < 0 && balance >= target) {
+                        // Same convention as time_to_FIRE: covered in the first year counts as zero
+                        reachedIn = year == 1 ? 0 : year;
+                    }
+                }
+                finalValues[p] = balance;
+                yearsToFire[p] = reachedIn;
+            }
+        }
+    }
+}
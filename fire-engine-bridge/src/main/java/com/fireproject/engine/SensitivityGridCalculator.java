@@ -0,0 +1,48 @@
+package com.fireproject.engine;
+
+import com.fireproject.dto.SensitivityGridResult;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates savings x horizon x goal grids with the deterministic projection. Each
+ * (goal, savings) row is projected once up to the longest horizon; shorter horizons
+ * are prefixes of the same path, so the whole row costs one compounding loop.
+ */
+@Component
+public class SensitivityGridCalculator {
+
+    public SensitivityGridResult compute(double currentValue, double annualReturn,
+                                         double[] monthlySavings, int[] horizons, double[] monthlyGoals) {
+        double rate = FireProjectionEngine.cap(annualReturn);
+        int maxHorizon = IntStream.of(horizons).max().orElseThrow();
+        int rows = monthlyGoals.length * monthlySavings.length;
+
+        int[][][] yearsToGoal = new int[monthlyGoals.length][monthlySavings.length][horizons.length];
+        double[][][] shortfall = new double[monthlyGoals.length][monthlySavings.length][horizons.length];
+
+        IntStream.range(0, rows).parallel().forEach(row -> {
+            int g = row / monthlySavings.length;
+            int s = row % monthlySavings.length;
+            double target = FireProjectionEngine.fireTarget(monthlyGoals[g]);
+
+            double[] path = new double[maxHorizon];
+            FireProjectionEngine.project(currentValue, monthlySavings[s], rate, maxHorizon, path);
+
+            for (int h = 0; h < horizons.length; h++) {
+                int years = horizons[h];
+                int reachedIn = FireProjectionEngine.yearsToReach(path, years, target);
+                if (reachedIn >= 0) {
+                    yearsToGoal[g][s][h] = reachedIn;
+                    shortfall[g][s][h] = 0.0;
+                } else {
+                    yearsToGoal[g][s][h] = years;
+                    shortfall[g][s][h] = target - FireProjectionEngine.pyRound(path[years - 1], 2);
+                }
+            }
+        });
+
+        return new SensitivityGridResult(rate, monthlyGoals, monthlySavings, horizons, yearsToGoal, shortfall);
+    }
+}
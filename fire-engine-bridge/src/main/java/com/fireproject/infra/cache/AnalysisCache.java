@@ -0,0 +1,57 @@
+package com.fireproject.infra.cache;
+
+import com.fireproject.dto.FireResponse;
+import com.fireproject.model.portfolio.PortfolioKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Size-bounded, TTL-evicting cache of motor results keyed on the canonical portfolio.
+ * Hit, miss and eviction counters are published as cache.* metrics with cache=fire.analysis.
+ */
+@Component
+public class AnalysisCache {
+
+    private final Cache<PortfolioKey, FireResponse> cache;
+
+    public AnalysisCache(
+            MeterRegistry meterRegistry,
+            @Value("${fire.cache.analysis.max-size:10000}") long maxSize,
+            @Value("${fire.cache.analysis.ttl:15m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "fire.analysis");
+    }
+
+    public FireResponse lookup(PortfolioKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void store(PortfolioKey key, FireResponse response) {
+        cache.put(key, response);
+    }
+
+    public long invalidateAll() {
+        long size = cache.estimatedSize();
+        cache.invalidateAll();
+        return size;
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
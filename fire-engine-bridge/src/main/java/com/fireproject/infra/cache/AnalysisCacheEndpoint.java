@@ -0,0 +1,39 @@
+package com.fireproject.infra.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Admin surface for the analysis cache. DELETE /actuator/analysiscache drops every
+ * entry, e.g. once market data rolls over for the day.
+ */
+@Component
+@Endpoint(id = "analysiscache")
+public class AnalysisCacheEndpoint {
+
+    private final AnalysisCache analysisCache;
+
+    public AnalysisCacheEndpoint(AnalysisCache analysisCache) {
+        this.analysisCache = analysisCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        var stats = analysisCache.stats();
+        return Map.of(
+                "size", analysisCache.size(),
+                "hits", stats.hitCount(),
+                "misses", stats.missCount(),
+                "evictions", stats.evictionCount(),
+                "hit_rate", stats.hitRate());
+    }
+
+    @DeleteOperation
+    public Map<String, Object> invalidate() {
+        return Map.of("invalidated", analysisCache.invalidateAll());
+    }
+}
@@ -0,0 +1,57 @@
+package com.fireproject.infra.cache;
+
+import com.fireproject.model.portfolio.FitKey;
+import com.fireproject.model.portfolio.FittedModel;
+import com.fireproject.model.portfolio.PortfolioKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Fitted annual return, confidence and volatility per allocation mix and market session.
+ * Entries of a past session are never looked up again once the date rolls over; the TTL
+ * only bounds how long they occupy memory. Metrics are published with cache=fire.fits.
+ */
+@Component
+public class FittedModelCache {
+
+    private final Cache<FitKey, FittedModel> cache;
+    private final double minSharedValue;
+
+    public FittedModelCache(
+            MeterRegistry meterRegistry,
+            @Value("${fire.cache.fits.max-size:10000}") long maxSize,
+            @Value("${fire.cache.fits.ttl:36h}") Duration ttl,
+            @Value("${fire.cache.fits.min-shared-value:1000}") double minSharedValue) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.minSharedValue = minSharedValue;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "fire.fits");
+    }
+
+    /** Key of the fit that answers {@code key} on the given market session. */
+    public FitKey keyFor(PortfolioKey key, LocalDate marketDate) {
+        return FitKey.of(key, marketDate, minSharedValue);
+    }
+
+    public FittedModel lookup(FitKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void store(FitKey key, FittedModel fit) {
+        cache.put(key, fit);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
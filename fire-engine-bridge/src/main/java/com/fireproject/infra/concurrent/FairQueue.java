@@ -0,0 +1,124 @@
+package com.fireproject.infra.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded blocking queue that serves keys round-robin: each key has its own FIFO and
+ * {@link #take()} visits the keys with pending work in turn. A key with a thousand queued
+ * items therefore gets the same share of the consumers as a key with one.
+ */
+public class FairQueue<K, T> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<K, ArrayDeque<T>> queues = new HashMap<>();
+    private final ArrayDeque<K> rotation = new ArrayDeque<>();
+    private final int capacity;
+    private final int perKeyCapacity;
+    private int size;
+
+    public FairQueue(int capacity, int perKeyCapacity) {
+        this.capacity = capacity;
+        this.perKeyCapacity = perKeyCapacity;
+    }
+
+    /** Returns false, without queueing, when the queue or the key's own share is full. */
+    public boolean offer(K key, T item) {
+        lock.lock();
+        try {
+            ArrayDeque<T> queue = queues.get(key);
+            if (size >= capacity || (queue != null && queue.size() >= perKeyCapacity)) {
+                return false;
+            }
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queues.put(key, queue);
+                rotation.addLast(key);
+            }
+            queue.addLast(item);
+            size++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public T take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            return next();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Like {@link #take()} but gives up after {@code timeout}, returning null. */
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (size == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return next();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Number of keys that currently have queued work. */
+    public int activeKeys() {
+        lock.lock();
+        try {
+            return rotation.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<K, Integer> depthByKey() {
+        lock.lock();
+        try {
+            Map<K, Integer> depths = new LinkedHashMap<>();
+            rotation.forEach(key -> depths.put(key, queues.get(key).size()));
+            return depths;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private T next() {
+        K key = rotation.pollFirst();
+        ArrayDeque<T> queue = queues.get(key);
+        T item = queue.pollFirst();
+        size--;
+        if (queue.isEmpty()) {
+            queues.remove(key);
+        } else {
+            rotation.addLast(key);
+        }
+        return item;
+    }
+}
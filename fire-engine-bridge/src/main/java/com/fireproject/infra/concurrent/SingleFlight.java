@@ -0,0 +1,92 @@
+package com.fireproject.infra.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for an equal key into one execution. The first caller
+ * runs the call; everyone arriving while it is in flight waits on the same future and
+ * receives the same value or the same exception.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter collapsed;
+
+    public SingleFlight(Counter collapsed) {
+        this.collapsed = collapsed;
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            collapsed.increment();
+            return await(existing);
+        }
+
+        try {
+            V value = call.get();
+            leader.complete(value);
+            return value;
+        } catch (Throwable t) {
+            leader.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    /**
+     * Non-blocking variant: waiters get a copy of the leader's future instead of parking a thread.
+     * The key is released before the future completes, so a call that stored its result in a cache
+     * first is never re-run by a late arrival.
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            collapsed.increment();
+            return existing.copy();
+        }
+
+        CompletableFuture<V> started;
+        try {
+            started = call.get();
+        } catch (Throwable t) {
+            started = CompletableFuture.failedFuture(t);
+        }
+        started.whenComplete((value, error) -> {
+            inFlight.remove(key, leader);
+            if (error == null) {
+                leader.complete(value);
+            } else {
+                leader.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+        });
+        return leader.copy();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
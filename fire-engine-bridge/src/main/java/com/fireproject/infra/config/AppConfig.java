@@ -1,12 +1,130 @@
 package com.fireproject.infra.config;
 
+import com.fireproject.infra.http.InstrumentedConnectionManager;
+import com.fireproject.infra.http.MotorHttpMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
 @Configuration
 public class AppConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager motorConnectionManager(
+            MeterRegistry meterRegistry,
+            @Value("${python.api.http.max-connections:50}") int maxConnections,
+            @Value("${python.api.http.max-connections-per-route:20}") int maxConnectionsPerRoute,
+            @Value("${python.api.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${python.api.http.read-timeout:60s}") Duration readTimeout,
+            @Value("${python.api.http.time-to-live:5m}") Duration timeToLive) {
+
+        Timer leaseWait = Timer.builder("motor.http.pool.wait")
+                .description("Time spent waiting to lease a pooled connection to the Python motor")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        var connectionManager = new InstrumentedConnectionManager(leaseWait);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(readTimeout))
+                .setTimeToLive(TimeValue.of(timeToLive))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build());
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "python-motor")
+                .bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient motorHttpClient(
+            PoolingHttpClientConnectionManager motorConnectionManager,
+            @Value("${python.api.http.request-timeout:5s}") Duration requestTimeout,
+            @Value("${python.api.http.read-timeout:60s}") Duration readTimeout,
+            @Value("${python.api.http.max-idle:30s}") Duration maxIdle) {
+
+        // requestTimeout bounds the wait for a pooled connection, readTimeout the motor's answer
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(requestTimeout))
+                .setResponseTimeout(Timeout.of(readTimeout))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(motorConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(maxIdle))
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient motorHttpClient, MeterRegistry meterRegistry) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(motorHttpClient));
+        restTemplate.getInterceptors().add(new MotorHttpMetrics(meterRegistry));
+        return restTemplate;
+    }
+
+    // Non-blocking transport for /analyze: the servlet thread is released while the motor computes
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "python.api.transport", havingValue = "async")
+    public CloseableHttpAsyncClient motorAsyncHttpClient(
+            MeterRegistry meterRegistry,
+            @Value("${python.api.http.max-connections:50}") int maxConnections,
+            @Value("${python.api.http.max-connections-per-route:20}") int maxConnectionsPerRoute,
+            @Value("${python.api.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${python.api.http.request-timeout:5s}") Duration requestTimeout,
+            @Value("${python.api.http.read-timeout:60s}") Duration readTimeout,
+            @Value("${python.api.http.max-idle:30s}") Duration maxIdle,
+            @Value("${python.api.http.time-to-live:5m}") Duration timeToLive) {
+
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .build())
+                .setDefaultTlsConfig(TlsConfig.custom()
+                        .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_1)
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "python-motor-async")
+                .bindTo(meterRegistry);
+
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(requestTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(maxIdle))
+                .build();
+        client.start();
+        return client;
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -38,6 +40,24 @@ public class ErrorManager {
         return buildResponse(e.getMessage(), locale);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity errorHandlerOverloaded(ServiceOverloadedException e, Locale locale){
+        String msg = messageSource.getMessage(e.getMessage(), null, e.getMessage(), locale);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(msg);
+    }
+
+    /**
+     * Message key to show a client for a failure caught off the request path (batch items, queued
+     * jobs). Only our own key-carrying exceptions pass through; anything else may hold internal
+     * text, so it is reported as the motor being unavailable.
+     */
+    public static String clientMessageKey(RuntimeException e) {
+        boolean carriesKey = e.getClass() == ValidationException.class || e instanceof ServiceOverloadedException;
+        return carriesKey && e.getMessage() != null ? e.getMessage() : "error.motor.unavailable";
+    }
+
     private ResponseEntity buildResponse(String key, Locale locale) {
         try {
             String msg = messageSource.getMessage(key, null, locale);
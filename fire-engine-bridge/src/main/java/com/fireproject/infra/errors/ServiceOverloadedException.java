@@ -0,0 +1,19 @@
+package com.fireproject.infra.errors;
+
+/**
+ * Raised when a bounded resource sheds load. Carries the message key and how long
+ * the client should wait before retrying.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String s, long retryAfterSeconds) {
+        super(s);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,127 @@
+package com.fireproject.infra.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One Python motor replica: its analyze URL, how many calls are outstanding against it,
+ * whether active health checks currently consider it routable, whether it understands CBOR
+ * and its own latency timer.
+ */
+public class MotorEndpoint {
+
+    private static final long MIN_SAMPLES_FOR_P95 = 20;
+
+    private final String analyzeUrl;
+    private final String batchUrl;
+    private final URI healthUri;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger consecutiveSuccesses = new AtomicInteger();
+    private final Timer latency;
+    private final MeterRegistry meterRegistry;
+    private final List<Meter> meters;
+    private volatile boolean healthy = true;
+    private volatile boolean acceptsCbor = true;
+
+    MotorEndpoint(String analyzeUrl, MeterRegistry meterRegistry) {
+        this.analyzeUrl = analyzeUrl;
+        this.batchUrl = analyzeUrl.replaceFirst("/+$", "") + "/batch";
+        this.healthUri = URI.create(analyzeUrl).resolve("/health");
+        this.meterRegistry = meterRegistry;
+        this.latency = Timer.builder("fire.motor.endpoint.latency")
+                .tag("endpoint", analyzeUrl)
+                .publishPercentiles(0.95)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge inFlight = Gauge.builder("fire.motor.endpoint.in_flight", outstanding, AtomicInteger::get)
+                .tag("endpoint", analyzeUrl)
+                .register(meterRegistry);
+        Gauge health = Gauge.builder("fire.motor.endpoint.healthy", this, e -> e.healthy ? 1 : 0)
+                .tag("endpoint", analyzeUrl)
+                .register(meterRegistry);
+        this.meters = List.of(latency, inFlight, health);
+    }
+
+    public String analyzeUrl() {
+        return analyzeUrl;
+    }
+
+    /** Multi-portfolio endpoint next to the analyze URL. */
+    public String batchUrl() {
+        return batchUrl;
+    }
+
+    URI healthUri() {
+        return healthUri;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /** False once the replica has turned a CBOR body down; it is then only sent JSON. */
+    public boolean acceptsCbor() {
+        return acceptsCbor;
+    }
+
+    public void fallBackToJson() {
+        acceptsCbor = false;
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    /** Marks a call as started; the returned start time must be handed back to {@link #end(long)}. */
+    public long begin() {
+        outstanding.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    public void end(long startedAt) {
+        outstanding.decrementAndGet();
+        latency.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    /** Recent p95 latency, or {@code fallback} until enough calls have been observed. */
+    public Duration p95(Duration fallback) {
+        if (latency.count() < MIN_SAMPLES_FOR_P95) {
+            return fallback;
+        }
+        for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+            if (value.percentile() == 0.95 && value.value() > 0) {
+                return Duration.ofNanos((long) value.value(TimeUnit.NANOSECONDS));
+            }
+        }
+        return fallback;
+    }
+
+    /** Unregisters the endpoint's meters, so a later endpoint for the same URL can take them over. */
+    void close() {
+        meters.forEach(meterRegistry::remove);
+    }
+
+    void recordHealth(boolean up, int ejectAfter, int reinstateAfter) {
+        if (up) {
+            consecutiveFailures.set(0);
+            if (consecutiveSuccesses.incrementAndGet() >= reinstateAfter) {
+                healthy = true;
+            }
+        } else {
+            consecutiveSuccesses.set(0);
+            if (consecutiveFailures.incrementAndGet() >= ejectAfter) {
+                healthy = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.fireproject.infra.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Client-side balancing across the configured motor replicas. Calls go to the healthy endpoint
+ * with the fewest outstanding requests (ties broken randomly). Endpoints are probed on the motor's
+ * {@code /health} route and ejected after consecutive failed checks, then reinstated once they
+ * report {@code readiness.ticker_mapping} again. If every endpoint is ejected, all of them are
+ * used rather than failing outright.
+ */
+@Component
+public class MotorEndpointPool {
+
+    private final List<MotorEndpoint> endpoints;
+    private final RestTemplate healthClient;
+    private final int ejectAfter;
+    private final int reinstateAfter;
+    private final Counter ejections;
+
+    public MotorEndpointPool(
+            @Value("${python.api.urls:${python.api.url}}") List<String> urls,
+            @Value("${python.api.health.timeout:2s}") Duration healthTimeout,
+            @Value("${python.api.health.eject-after:2}") int ejectAfter,
+            @Value("${python.api.health.reinstate-after:1}") int reinstateAfter,
+            MeterRegistry meterRegistry) {
+        this.endpoints = urls.stream()
+                .map(String::strip)
+                .filter(url -> !url.isEmpty())
+                .distinct()
+                .map(url -> new MotorEndpoint(url, meterRegistry))
+                .toList();
+        if (endpoints.isEmpty()) {
+            throw new IllegalStateException("At least one python.api.urls entry is required");
+        }
+
+        // Health probes get their own short timeouts instead of the 60s analyze budget
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(healthTimeout);
+        requestFactory.setReadTimeout(healthTimeout);
+        this.healthClient = new RestTemplate(requestFactory);
+        this.ejectAfter = ejectAfter;
+        this.reinstateAfter = reinstateAfter;
+        this.ejections = Counter.builder("fire.motor.endpoint.ejections")
+                .description("Times a motor endpoint was taken out of rotation by a failed health check")
+                .register(meterRegistry);
+    }
+
+    /** Least-outstanding healthy endpoint other than {@code exclude}, or null if there is none. */
+    public MotorEndpoint select(MotorEndpoint exclude) {
+        List<MotorEndpoint> candidates = endpoints.stream()
+                .filter(e -> e != exclude && e.isHealthy())
+                .toList();
+        if (candidates.isEmpty()) {
+            candidates = endpoints.stream().filter(e -> e != exclude).toList();
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        int offset = ThreadLocalRandom.current().nextInt(candidates.size());
+        MotorEndpoint best = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            MotorEndpoint candidate = candidates.get((offset + i) % candidates.size());
+            if (best == null || candidate.outstanding() < best.outstanding()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    public int size() {
+        return endpoints.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        endpoints.forEach(MotorEndpoint::close);
+    }
+
+    @Scheduled(fixedDelayString = "${python.api.health.interval:10s}")
+    public void checkHealth() {
+        for (MotorEndpoint endpoint : endpoints) {
+            boolean wasHealthy = endpoint.isHealthy();
+            endpoint.recordHealth(probe(endpoint), ejectAfter, reinstateAfter);
+            if (wasHealthy && !endpoint.isHealthy()) {
+                ejections.increment();
+            }
+        }
+    }
+
+    private boolean probe(MotorEndpoint endpoint) {
+        try {
+            Map<?, ?> body = healthClient.getForObject(endpoint.healthUri(), Map.class);
+            return body != null
+                    && body.get("readiness") instanceof Map<?, ?> readiness
+                    && Boolean.TRUE.equals(readiness.get("ticker_mapping"));
+        } catch (Exception e) {
+            // Connection refused, timeout or the 503 the motor returns while degraded
+            return false;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.fireproject.infra.http;
+
+import com.fireproject.infra.jfr.MotorCallEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of every HTTP call to the motor, as a histogram tagged by path, status, outcome and
+ * exception, plus a {@link MotorCallEvent} for flight recordings. Installed as a
+ * {@link ClientHttpRequestInterceptor} on the motor RestTemplate; the non-blocking transport
+ * records through {@link #start} so both land in the same series.
+ * Time is measured until the response headers arrive, which for the motor is its compute time.
+ */
+public class MotorHttpMetrics implements ClientHttpRequestInterceptor {
+
+    private static final String NAME = "fire.motor.http";
+
+    private final MeterRegistry meterRegistry;
+
+    public MotorHttpMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Call call = start(request.getURI(), body.length);
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            call.end(response.getStatusCode().value(), null);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            call.end(null, e);
+            throw e;
+        }
+    }
+
+    public Call start(URI uri, long requestBytes) {
+        return new Call(uri, requestBytes);
+    }
+
+    /** One call in progress; {@link #end} must be called exactly once. */
+    public final class Call {
+
+        private final URI uri;
+        private final long startedAt;
+        private final MotorCallEvent event = new MotorCallEvent();
+
+        private Call(URI uri, long requestBytes) {
+            this.uri = uri;
+            this.event.requestBytes = requestBytes;
+            this.event.start();
+            this.startedAt = System.nanoTime();
+        }
+
+        /** {@code status} is null when no response arrived, in which case {@code error} says why. */
+        public void end(Integer status, Throwable error) {
+            Timer.builder(NAME)
+                    .description("HTTP calls to the Python motor, until the response headers arrive")
+                    .tag("uri", uri.getPath())
+                    .tag("status", status == null ? "IO_ERROR" : status.toString())
+                    .tag("outcome", status == null ? Outcome.UNKNOWN.name() : Outcome.forStatus(status).name())
+                    .tag("exception", error == null ? "none" : error.getClass().getSimpleName())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+            event.uri = uri.getPath();
+            event.status = status == null ? 0 : status;
+            event.exception = error == null ? null : error.getClass().getSimpleName();
+            event.finish();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.fireproject.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the bridge's flight recorder events. None is registered with JFR until
+ * {@link FlightEvents} does so, and while an event type is unregistered or not enabled in a
+ * running recording, {@link #start} and {@link #finish} do nothing. On top of the recording's
+ * own settings, an event shorter than the threshold configured for its type is dropped.
+ */
+@Registered(false)
+@StackTrace(false)
+@Category("Fire Engine")
+public abstract class FireEvent extends Event {
+
+    private transient long startedAt;
+
+    public void start() {
+        if (isEnabled()) {
+            startedAt = System.nanoTime();
+            begin();
+        }
+    }
+
+    public void finish() {
+        if (!isEnabled()) {
+            return;
+        }
+        end();
+        if (System.nanoTime() - startedAt >= FlightEvents.thresholdNanos(getClass()) && shouldCommit()) {
+            commit();
+        }
+    }
+}
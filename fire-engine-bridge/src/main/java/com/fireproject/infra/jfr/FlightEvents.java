@@ -0,0 +1,63 @@
+package com.fireproject.infra.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.FlightRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registers the bridge's JFR events when fire.jfr.enabled is true; they then show up in any
+ * flight recording that enables them, next to GC and thread activity. When disabled they are
+ * never registered, and emitting one costs an allocation the JIT removes and a false check.
+ * Thresholds are process-wide, like the JFR registration itself.
+ */
+@Component
+public class FlightEvents {
+
+    private static final List<Class<? extends FireEvent>> TYPES = List.of(
+            TokenVerifyEvent.class, PrincipalLookupEvent.class, PasswordHashEvent.class, MotorCallEvent.class);
+
+    private static volatile Map<Class<?>, Long> thresholds = Map.of();
+
+    private final boolean enabled;
+
+    public FlightEvents(
+            @Value("${fire.jfr.enabled:true}") boolean enabled,
+            @Value("${fire.jfr.thresholds.token-verify:0ms}") Duration tokenVerify,
+            @Value("${fire.jfr.thresholds.principal-lookup:0ms}") Duration principalLookup,
+            @Value("${fire.jfr.thresholds.password-hash:0ms}") Duration passwordHash,
+            @Value("${fire.jfr.thresholds.motor-call:0ms}") Duration motorCall) {
+        this.enabled = enabled;
+        thresholds = Map.of(
+                TokenVerifyEvent.class, tokenVerify.toNanos(),
+                PrincipalLookupEvent.class, principalLookup.toNanos(),
+                PasswordHashEvent.class, passwordHash.toNanos(),
+                MotorCallEvent.class, motorCall.toNanos());
+        for (Class<? extends FireEvent> type : TYPES) {
+            if (enabled) {
+                FlightRecorder.register(type);
+            } else {
+                FlightRecorder.unregister(type);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (enabled) {
+            TYPES.forEach(FlightRecorder::unregister);
+        }
+    }
+
+    static long thresholdNanos(Class<?> type) {
+        return thresholds.getOrDefault(type, 0L);
+    }
+}
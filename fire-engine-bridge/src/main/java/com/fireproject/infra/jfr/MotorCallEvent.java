@@ -0,0 +1,28 @@
+package com.fireproject.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.fireproject.MotorCall")
+@Label("Motor Call")
+@Category({"Fire Engine", "Motor"})
+@Description("One HTTP call to the Python motor, until its response headers arrive")
+public class MotorCallEvent extends FireEvent {
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Request Size")
+    @DataAmount
+    public long requestBytes;
+
+    // 0 when no response arrived
+    @Label("Status")
+    public int status;
+
+    @Label("Exception")
+    public String exception;
+}
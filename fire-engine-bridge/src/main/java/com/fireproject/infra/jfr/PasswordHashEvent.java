@@ -0,0 +1,25 @@
+package com.fireproject.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("com.fireproject.PasswordHash")
+@Label("Password Hash")
+@Category({"Fire Engine", "Security"})
+@Description("BCrypt encode on registration or match on login, from submission to the hash pool until the result")
+public class PasswordHashEvent extends FireEvent {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Queue Wait")
+    @Timespan
+    public long queueWait;
+
+    // ok, rejected, timeout, interrupted or failed
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,19 @@
+package com.fireproject.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.fireproject.PrincipalLookup")
+@Label("Principal Lookup")
+@Category({"Fire Engine", "Security"})
+@Description("Resolution of a verified token's subject to a user in SecurityFilter")
+public class PrincipalLookupEvent extends FireEvent {
+
+    @Label("Resolver")
+    public String resolver;
+
+    @Label("Found")
+    public boolean found;
+}
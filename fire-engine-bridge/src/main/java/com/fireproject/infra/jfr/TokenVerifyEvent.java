@@ -0,0 +1,16 @@
+package com.fireproject.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.fireproject.TokenVerify")
+@Label("Token Verification")
+@Category({"Fire Engine", "Security"})
+@Description("Signature, issuer and expiry check of a bearer token in SecurityFilter")
+public class TokenVerifyEvent extends FireEvent {
+
+    @Label("Valid")
+    public boolean valid;
+}
@@ -0,0 +1,45 @@
+package com.fireproject.infra.marketdata;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Date of the latest completed trading session: today once the close (plus the provider's
+ * settling delay) has passed on a weekday, otherwise the previous weekday. Exchange holidays
+ * are not modelled; on those days the date simply rolls over without new closes.
+ */
+@Component
+public class MarketCalendar {
+
+    private final Clock clock;
+    private final LocalTime closesAt;
+
+    @Autowired
+    public MarketCalendar(
+            @Value("${fire.market-data.refresh-zone:America/New_York}") ZoneId zone,
+            @Value("${fire.market-data.session-close:16:30}") LocalTime closesAt) {
+        this(Clock.system(zone), closesAt);
+    }
+
+    public MarketCalendar(Clock clock, LocalTime closesAt) {
+        this.clock = clock;
+        this.closesAt = closesAt;
+    }
+
+    public LocalDate lastSession() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        LocalDate day = now.toLocalTime().isBefore(closesAt) ? now.toLocalDate().minusDays(1) : now.toLocalDate();
+        while (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            day = day.minusDays(1);
+        }
+        return day;
+    }
+}
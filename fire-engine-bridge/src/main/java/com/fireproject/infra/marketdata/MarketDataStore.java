@@ -0,0 +1,131 @@
+package com.fireproject.infra.marketdata;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Directory of {@link PriceColumnFile}s, one {@code <TICKER>.prices} file per canonical ticker.
+ * The directory can be shared with the motor (read-only there) and with other bridge replicas:
+ * the first process to lock {@code .writer.lock} is the only one that ingests, the others read.
+ */
+@Component
+public class MarketDataStore {
+
+    static final String SUFFIX = ".prices";
+    // Yahoo-style symbols such as BRK-B, WALMEX.MX, ^GSPC or EURUSD=X; nothing that can escape the directory
+    private static final Pattern TICKER = Pattern.compile("(?=.*[A-Z0-9])[A-Z0-9.^=\\-]{1,20}");
+
+    private final Path directory;
+    private final Map<String, PriceColumnFile> open = new ConcurrentHashMap<>();
+    private final FileChannel lockChannel;
+    private final FileLock writerLock;
+
+    public MarketDataStore(
+            @Value("${fire.market-data.dir:${java.io.tmpdir}/fire-prices}") Path directory,
+            MeterRegistry meterRegistry) {
+        try {
+            this.directory = Files.createDirectories(directory);
+            this.lockChannel = FileChannel.open(directory.resolve(".writer.lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            this.writerLock = tryLock(lockChannel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Market data directory is not usable: " + directory, e);
+        }
+        Gauge.builder("fire.market_data.tickers", this, store -> store.tickers().size())
+                .description("Tickers with a local price history")
+                .register(meterRegistry);
+    }
+
+    /** True when this process holds the writer lock and may append to the files. */
+    public boolean isWriter() {
+        return writerLock != null;
+    }
+
+    /** The ticker's file, created empty if needed. Only the writer may call this. */
+    public PriceColumnFile series(String ticker) {
+        if (!isWriter()) {
+            throw new IllegalStateException("Another process owns the market data store in " + directory);
+        }
+        return open.computeIfAbsent(checked(ticker), t -> PriceColumnFile.open(fileOf(t)));
+    }
+
+    /**
+     * The ticker's file if it exists. Readers that do not own the store reopen it on every call,
+     * so they follow the writer's rewrites instead of holding on to a replaced file.
+     */
+    public Optional<PriceColumnFile> find(String ticker) {
+        String checked = checked(ticker);
+        PriceColumnFile cached = open.get(checked);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Path file = fileOf(checked);
+        if (Files.notExists(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(isWriter() ? series(checked) : PriceColumnFile.open(file));
+    }
+
+    public List<String> tickers() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> name.substring(0, name.length() - SUFFIX.length()))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Market data directory could not be listed: " + directory, e);
+        }
+    }
+
+    public static boolean isValidTicker(String ticker) {
+        return ticker != null && TICKER.matcher(ticker).matches();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        open.values().forEach(PriceColumnFile::force);
+        if (writerLock != null) {
+            writerLock.release();
+        }
+        lockChannel.close();
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Another store in this JVM already owns the directory
+            return null;
+        }
+    }
+
+    private Path fileOf(String ticker) {
+        return directory.resolve(ticker + SUFFIX);
+    }
+
+    private static String checked(String ticker) {
+        if (!isValidTicker(ticker)) {
+            throw new IllegalArgumentException("Unsupported ticker symbol: " + ticker);
+        }
+        return ticker;
+    }
+}
@@ -0,0 +1,262 @@
+package com.fireproject.infra.marketdata;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only daily price history of one ticker, kept in a memory-mapped file with two columns:
+ * dates as epoch days ({@code int32}) and adjusted closes ({@code float64}), both little-endian.
+ * <pre>
+ *   0   magic "FPX1", version, capacity, count   (4 x int32, padded to 32 bytes)
+ *   32  dates[capacity]
+ *   32 + 4 * capacity   closes[capacity]
+ * </pre>
+ * Rows past {@code count} are written first and {@code count} last with a release store, so a
+ * reader that loads {@code count} with acquire semantics and only then the rows never sees a
+ * half-written row. This process reads it through {@link #COUNT}; the motor's
+ * {@code price_store.py} uses plain loads in the same order, which is enough on x86, where loads
+ * are not reordered with other loads. When the capacity is exhausted the file is rewritten at
+ * twice the size and atomically moved over the old one; readers that already mapped the old file
+ * keep a consistent view of it.
+ * <p>
+ * A single writer is assumed: mutating methods are synchronized, reads are lock-free.
+ */
+public final class PriceColumnFile {
+
+    static final byte[] MAGIC = "FPX1".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    private static final int COUNT_OFFSET = 12;
+    private static final int MIN_CAPACITY = 256;
+    // Ordered access to the count in the mapped header; it is 4-byte aligned, as the view requires
+    private static final VarHandle COUNT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path path;
+    private volatile Snapshot snapshot;
+
+    private PriceColumnFile(Path path, Snapshot snapshot) {
+        this.path = path;
+        this.snapshot = snapshot;
+    }
+
+    /** Maps the file at {@code path}, creating an empty one if it does not exist yet. */
+    public static PriceColumnFile open(Path path) {
+        try {
+            if (Files.notExists(path)) {
+                write(path, new int[0], new double[0], 0, MIN_CAPACITY);
+            }
+            return new PriceColumnFile(path, map(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Price file could not be opened: " + path, e);
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public int size() {
+        return snapshot.count;
+    }
+
+    /** Epoch day of the newest row, or {@link Integer#MIN_VALUE} while the file is empty. */
+    public int lastDate() {
+        Snapshot current = snapshot;
+        return current.count == 0 ? Integer.MIN_VALUE : current.date(current.count - 1);
+    }
+
+    /** Close stored for {@code epochDay}, or NaN when there is no row for that day. */
+    public double closeOn(int epochDay) {
+        Snapshot current = snapshot;
+        int index = current.search(epochDay);
+        return index >= 0 ? current.close(index) : Double.NaN;
+    }
+
+    /** Zero-copy view of the rows with {@code fromDay <= date <= toDay}. */
+    public PriceRange range(int fromDay, int toDay) {
+        Snapshot current = snapshot;
+        int from = current.search(fromDay);
+        from = from >= 0 ? from : -from - 1;
+        int to = current.search(toDay);
+        to = to >= 0 ? to + 1 : -to - 1;
+        return current.slice(from, Math.max(from, to));
+    }
+
+    /**
+     * Appends the rows dated after {@link #lastDate()}; earlier or repeated days are ignored, so
+     * overlapping refreshes are harmless. Dates must be ascending. Returns the number of rows added.
+     */
+    public synchronized int append(int[] dates, double[] closes) {
+        if (dates.length != closes.length) {
+            throw new IllegalArgumentException("Dates and closes must have the same length");
+        }
+        Snapshot current = snapshot;
+        int last = lastDate();
+        int skip = 0;
+        while (skip < dates.length && dates[skip] <= last) {
+            skip++;
+        }
+        int added = dates.length - skip;
+        if (added == 0) {
+            return 0;
+        }
+        checkAscending(dates, skip);
+
+        int count = current.count + added;
+        if (count > current.capacity) {
+            int[] allDates = new int[count];
+            double[] allCloses = new double[count];
+            current.copyTo(allDates, allCloses);
+            System.arraycopy(dates, skip, allDates, current.count, added);
+            System.arraycopy(closes, skip, allCloses, current.count, added);
+            rewrite(allDates, allCloses);
+            return added;
+        }
+
+        MappedByteBuffer buffer = current.buffer;
+        for (int i = 0; i < added; i++) {
+            buffer.putInt(HEADER_BYTES + 4 * (current.count + i), dates[skip + i]);
+            buffer.putDouble(current.closesOffset() + 8 * (current.count + i), closes[skip + i]);
+        }
+        COUNT.setRelease(buffer, COUNT_OFFSET, count);
+        snapshot = new Snapshot(buffer, current.capacity, count);
+        return added;
+    }
+
+    /**
+     * Replaces the whole history, e.g. after a dividend or split changed every adjusted close.
+     * The new content is written to a sibling file and moved into place atomically.
+     */
+    public synchronized void replace(int[] dates, double[] closes) {
+        checkAscending(dates, 0);
+        rewrite(dates, closes);
+    }
+
+    /** Flushes dirty pages to disk. */
+    public void force() {
+        snapshot.buffer.force();
+    }
+
+    private void rewrite(int[] dates, double[] closes) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < dates.length) {
+            capacity <<= 1;
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            write(tmp, dates, closes, dates.length, capacity);
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            snapshot = map(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Price file could not be rewritten: " + path, e);
+        }
+    }
+
+    private static void checkAscending(int[] dates, int from) {
+        for (int i = from + 1; i < dates.length; i++) {
+            if (dates[i] <= dates[i - 1]) {
+                throw new IllegalArgumentException("Price dates must be strictly ascending");
+            }
+        }
+    }
+
+    private static void write(Path target, int[] dates, double[] closes, int count, int capacity) throws IOException {
+        if (dates.length != closes.length) {
+            throw new IllegalArgumentException("Dates and closes must have the same length");
+        }
+        ByteBuffer file = ByteBuffer.allocate(HEADER_BYTES + 12 * capacity).order(ByteOrder.LITTLE_ENDIAN);
+        file.put(MAGIC).putInt(VERSION).putInt(capacity).putInt(count);
+        for (int i = 0; i < count; i++) {
+            file.putInt(HEADER_BYTES + 4 * i, dates[i]);
+            file.putDouble(HEADER_BYTES + 4 * capacity + 8 * i, closes[i]);
+        }
+        file.clear();
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (file.hasRemaining()) {
+                channel.write(file);
+            }
+            channel.force(true);
+        }
+    }
+
+    private static Snapshot map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(0, magic);
+            int version = buffer.getInt(4);
+            int capacity = buffer.getInt(8);
+            int count = (int) COUNT.getAcquire(buffer, COUNT_OFFSET);
+            if (!Arrays.equals(magic, MAGIC) || version != VERSION
+                    || count < 0 || count > capacity || channel.size() < HEADER_BYTES + 12L * capacity) {
+                throw new IOException("Not a version " + VERSION + " price file");
+            }
+            return new Snapshot(buffer, capacity, count);
+        }
+    }
+
+    /** Mapped buffer plus the row count published with it; replaced, never mutated, by the writer. */
+    private record Snapshot(MappedByteBuffer buffer, int capacity, int count) {
+
+        int closesOffset() {
+            return HEADER_BYTES + 4 * capacity;
+        }
+
+        int date(int index) {
+            return buffer.getInt(HEADER_BYTES + 4 * index);
+        }
+
+        double close(int index) {
+            return buffer.getDouble(closesOffset() + 8 * index);
+        }
+
+        // Arrays.binarySearch contract over the published rows
+        int search(int epochDay) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int value = date(mid);
+                if (value < epochDay) {
+                    low = mid + 1;
+                } else if (value > epochDay) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        PriceRange slice(int from, int to) {
+            int rows = to - from;
+            // slice() and asReadOnlyBuffer() reset the byte order, so it is set on the final view
+            ByteBuffer dates = buffer.slice(HEADER_BYTES + 4 * from, 4 * rows).asReadOnlyBuffer();
+            ByteBuffer closes = buffer.slice(closesOffset() + 8 * from, 8 * rows).asReadOnlyBuffer();
+            return new PriceRange(dates.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer(),
+                    closes.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer());
+        }
+
+        void copyTo(int[] dates, double[] closes) {
+            for (int i = 0; i < count; i++) {
+                dates[i] = date(i);
+                closes[i] = close(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.fireproject.infra.marketdata;
+
+import java.time.LocalDate;
+
+/** Source of daily adjusted closes used to fill the {@link MarketDataStore}. */
+public interface PriceFeed {
+
+    /** Completed trading days from {@code from} (inclusive) to the latest close, ascending. */
+    DailyCloses fetch(String ticker, LocalDate from);
+
+    record DailyCloses(int[] epochDays, double[] closes) {
+
+        public DailyCloses {
+            if (epochDays.length != closes.length) {
+                throw new IllegalArgumentException("Dates and closes must have the same length");
+            }
+        }
+
+        public int size() {
+            return epochDays.length;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.fireproject.infra.marketdata;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.time.LocalDate;
+
+/**
+ * Read-only window over a {@link PriceColumnFile}. Both buffers are views of the mapped file,
+ * so nothing is copied until the caller reads a value.
+ */
+public record PriceRange(IntBuffer dates, DoubleBuffer closes) {
+
+    public int size() {
+        return dates.limit();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int epochDay(int index) {
+        return dates.get(index);
+    }
+
+    public LocalDate date(int index) {
+        return LocalDate.ofEpochDay(dates.get(index));
+    }
+
+    public double close(int index) {
+        return closes.get(index);
+    }
+}
@@ -0,0 +1,100 @@
+package com.fireproject.infra.marketdata;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily adjusted closes from Yahoo's chart API, the same source yfinance uses for the motor's
+ * {@code auto_adjust=True} downloads. The bar of a session that is still open is dropped, so
+ * only completed closes reach the append-only store.
+ */
+@Component
+public class YahooPriceFeed implements PriceFeed {
+
+    private final RestTemplate client;
+    private final String url;
+    private final HttpEntity<Void> request;
+
+    public YahooPriceFeed(
+            @Value("${fire.market-data.feed.url:https://query1.finance.yahoo.com/v8/finance/chart/{ticker}}") String url,
+            @Value("${fire.market-data.feed.timeout:10s}") Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.client = new RestTemplate(requestFactory);
+        this.url = url + "?period1={from}&period2={to}&interval=1d&includeAdjustedClose=true";
+
+        // The chart API throttles clients without a browser-like user agent
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.USER_AGENT, "Mozilla/5.0 (compatible; fire-engine-bridge)");
+        this.request = new HttpEntity<>(headers);
+    }
+
+    @Override
+    public DailyCloses fetch(String ticker, LocalDate from) {
+        long now = Instant.now().getEpochSecond();
+        Map<?, ?> body = client.exchange(url, HttpMethod.GET, request, Map.class,
+                ticker, from.atStartOfDay(ZoneOffset.UTC).toEpochSecond(), now).getBody();
+
+        Map<?, ?> result = first(path(body, "chart", "result"));
+        if (result == null) {
+            throw new IllegalStateException("No chart data returned for " + ticker);
+        }
+        List<?> timestamps = path(result, "timestamp") instanceof List<?> list ? list : List.of();
+        List<?> adjusted = path(first(path(result, "indicators", "adjclose")), "adjclose") instanceof List<?> list
+                ? list : List.of();
+        Map<?, ?> meta = path(result, "meta") instanceof Map<?, ?> map ? map : Map.of();
+        ZoneId zone = meta.get("exchangeTimezoneName") instanceof String name ? ZoneId.of(name) : ZoneOffset.UTC;
+        long sessionEnd = path(meta, "currentTradingPeriod", "regular", "end") instanceof Number end ? end.longValue() : 0;
+        int openSession = now < sessionEnd ? epochDay(sessionEnd, zone) : Integer.MIN_VALUE;
+
+        int[] days = new int[Math.min(timestamps.size(), adjusted.size())];
+        double[] closes = new double[days.length];
+        int rows = 0;
+        for (int i = 0; i < days.length; i++) {
+            if (!(timestamps.get(i) instanceof Number ts) || !(adjusted.get(i) instanceof Number close)) {
+                continue;
+            }
+            int day = epochDay(ts.longValue(), zone);
+            if (day == openSession || (rows > 0 && day <= days[rows - 1])) {
+                continue;
+            }
+            days[rows] = day;
+            closes[rows] = close.doubleValue();
+            rows++;
+        }
+        return new DailyCloses(Arrays.copyOf(days, rows), Arrays.copyOf(closes, rows));
+    }
+
+    private static int epochDay(long epochSecond, ZoneId zone) {
+        return (int) Instant.ofEpochSecond(epochSecond).atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    private static Object path(Object node, String... keys) {
+        for (String key : keys) {
+            if (!(node instanceof Map<?, ?> map)) {
+                return null;
+            }
+            node = map.get(key);
+        }
+        return node;
+    }
+
+    private static Map<?, ?> first(Object node) {
+        return node instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof Map<?, ?> map ? map : null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.fireproject.infra.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generic cell rate algorithm: a token bucket stored as a single "theoretical arrival time".
+ * Admission is one compare-and-set on an {@link AtomicLong}, so there is no lock to contend on.
+ */
+final class Gcra {
+
+    private final long emissionInterval;
+    private final long burstWindow;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /** {@code emissionInterval} is nanoseconds per request; {@code burst} requests may arrive back to back. */
+    Gcra(long emissionInterval, int burst) {
+        this.emissionInterval = emissionInterval;
+        this.burstWindow = emissionInterval * Math.max(1, burst);
+    }
+
+    /** Returns 0 when admitted, otherwise the nanoseconds until a request would be. */
+    long tryAcquire(long now) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + emissionInterval;
+            long allowedAt = next - burstWindow;
+            if (now < allowedAt) {
+                return allowedAt - now;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Gives back the token of a request that was admitted here but then turned down elsewhere. */
+    void refund() {
+        theoreticalArrival.addAndGet(-emissionInterval);
+    }
+}
@@ -0,0 +1,130 @@
+package com.fireproject.infra.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user and global request budgets. Each user gets a {@link Gcra} bucket sized by the most
+ * generous of their roles (api.rate-limit.roles.*), keyed by the JWT subject. The global budget
+ * is split across stripes picked at random per request, so concurrent callers rarely touch the
+ * same counter. A request is charged to the user first and refunded if the global budget turns
+ * it down.
+ */
+@Component
+public class RateLimiter {
+
+    public record Limit(double perMinute, int burst) {
+
+        long emissionInterval() {
+            return (long) (Duration.ofMinutes(1).toNanos() / perMinute);
+        }
+    }
+
+    public record Decision(boolean allowed, String scope, long retryAfterNanos) {
+
+        static final Decision ALLOWED = new Decision(true, null, 0);
+    }
+
+    private final boolean enabled;
+    private final Map<String, Limit> roleLimits;
+    private final Limit defaultLimit;
+    private final Gcra[] globalStripes;
+    private final Cache<String, Gcra> userBuckets;
+    private final LongSupplier nanoClock;
+    private final Counter rejectedUser;
+    private final Counter rejectedGlobal;
+
+    @Autowired
+    public RateLimiter(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${api.rate-limit.enabled:true}") boolean enabled,
+            @Value("${api.rate-limit.global.per-minute:6000}") double globalPerMinute,
+            @Value("${api.rate-limit.global.burst:200}") int globalBurst,
+            @Value("${api.rate-limit.global.stripes:8}") int stripes) {
+        this(enabled,
+                Binder.get(environment)
+                        .bind("api.rate-limit.roles", Bindable.mapOf(String.class, Limit.class))
+                        .orElse(Map.of()),
+                new Limit(globalPerMinute, globalBurst), stripes, meterRegistry, System::nanoTime);
+    }
+
+    public RateLimiter(boolean enabled, Map<String, Limit> roleLimits, Limit global, int stripes,
+                       MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.roleLimits = roleLimits.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(e -> e.getKey().toUpperCase(Locale.ROOT), Map.Entry::getValue));
+        this.defaultLimit = this.roleLimits.getOrDefault("ROLE_USER", new Limit(60, 20));
+        this.nanoClock = nanoClock;
+
+        // Each stripe gets an equal slice of the global rate and burst
+        int stripeCount = Math.max(1, stripes);
+        Limit stripe = new Limit(global.perMinute() / stripeCount, Math.max(1, global.burst() / stripeCount));
+        this.globalStripes = new Gcra[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            globalStripes[i] = new Gcra(stripe.emissionInterval(), stripe.burst());
+        }
+        this.userBuckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+
+        this.rejectedUser = Counter.builder("api.rate_limit.rejected")
+                .tag("scope", "user")
+                .register(meterRegistry);
+        this.rejectedGlobal = Counter.builder("api.rate_limit.rejected")
+                .tag("scope", "global")
+                .register(meterRegistry);
+    }
+
+    public Decision check(Authentication authentication) {
+        if (!enabled) {
+            return Decision.ALLOWED;
+        }
+        long now = nanoClock.getAsLong();
+
+        Limit limit = limitFor(authentication);
+        Gcra user = userBuckets.get(authentication.getName(), subject -> new Gcra(limit.emissionInterval(), limit.burst()));
+        long wait = user.tryAcquire(now);
+        if (wait > 0) {
+            rejectedUser.increment();
+            return new Decision(false, "user", wait);
+        }
+
+        Gcra global = globalStripes[ThreadLocalRandom.current().nextInt(globalStripes.length)];
+        wait = global.tryAcquire(now);
+        if (wait > 0) {
+            // Global overload is not the caller's doing, so it does not cost them their own budget
+            user.refund();
+            rejectedGlobal.increment();
+            return new Decision(false, "global", wait);
+        }
+        return Decision.ALLOWED;
+    }
+
+    private Limit limitFor(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(role -> roleLimits.get(role.toUpperCase(Locale.ROOT)))
+                .filter(limit -> limit != null)
+                .max(Comparator.comparingDouble(Limit::perMinute))
+                .orElse(defaultLimit);
+    }
+}
@@ -0,0 +1,57 @@
+package com.fireproject.infra.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps concurrent calls to a dependency. Callers wait at most {@code maxWait} for a slot and are
+ * rejected after that, so a slow dependency cannot absorb every request thread.
+ */
+public class Bulkhead {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.rejected = Counter.builder("resilience.bulkhead.rejected")
+                .tag("name", name)
+                .description("Calls refused because every slot was busy")
+                .register(meterRegistry);
+        Gauge.builder("resilience.bulkhead.available", permits, Semaphore::availablePermits)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public boolean tryAcquire() {
+        try {
+            if (permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /** Never blocks; used on paths that must not park the calling thread. */
+    public boolean tryAcquireNow() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
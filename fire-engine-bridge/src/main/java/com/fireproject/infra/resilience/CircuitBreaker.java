@@ -0,0 +1,132 @@
+package com.fireproject.infra.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row it
+ * opens and rejects calls for {@code openDuration}; then it lets a limited number of probe
+ * calls through (half-open). One successful probe closes it again, one failed probe re-opens it.
+ * <p>
+ * State is exported as {@code resilience.breaker.state} (0 closed, 1 open, 2 half-open) and every
+ * transition increments {@code resilience.breaker.transitions} tagged with the target state.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier nanoClock;
+
+    // State and the time it opened change together, so a failed transition cannot move the window
+    private final AtomicReference<Status> status = new AtomicReference<>(new Status(State.CLOSED, 0));
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger probePermits = new AtomicInteger();
+
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+    private final Counter rejected;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, int halfOpenProbes,
+                          MeterRegistry meterRegistry) {
+        this(name, failureThreshold, openDuration, halfOpenProbes, meterRegistry, System::nanoTime);
+    }
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, int halfOpenProbes,
+                          MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        this.nanoClock = nanoClock;
+
+        for (State target : State.values()) {
+            transitions.put(target, Counter.builder("resilience.breaker.transitions")
+                    .tag("name", name)
+                    .tag("to", target.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        this.rejected = Counter.builder("resilience.breaker.rejected")
+                .tag("name", name)
+                .description("Calls refused because the breaker was open")
+                .register(meterRegistry);
+        Gauge.builder("resilience.breaker.state", status, s -> s.get().state().ordinal())
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /** Returns true when the call may proceed; every permitted call must report back via onSuccess/onFailure. */
+    public boolean tryAcquire() {
+        Status current = status.get();
+        if (current.state() == State.OPEN && nanoClock.getAsLong() - current.openedAt() >= openNanos) {
+            if (transition(State.OPEN, State.HALF_OPEN)) {
+                probePermits.set(halfOpenProbes);
+            }
+            current = status.get();
+        }
+        boolean permitted = switch (current.state()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> probePermits.getAndDecrement() > 0;
+        };
+        if (!permitted) {
+            rejected.increment();
+        }
+        return permitted;
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        transition(State.HALF_OPEN, State.CLOSED);
+    }
+
+    public void onFailure() {
+        if (status.get().state() == State.HALF_OPEN) {
+            open(State.HALF_OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED);
+        }
+    }
+
+    public State state() {
+        return status.get().state();
+    }
+
+    /** Seconds until the breaker will admit a probe; at least 1 so it can be used as Retry-After. */
+    public long retryAfterSeconds() {
+        long remaining = openNanos - (nanoClock.getAsLong() - status.get().openedAt());
+        return Math.max(1, Duration.ofNanos(remaining).toSeconds());
+    }
+
+    private void open(State from) {
+        if (transition(from, State.OPEN)) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    // Opening stamps the time in the same swap; any other transition keeps the last opening time
+    private boolean transition(State from, State to) {
+        Status current = status.get();
+        if (current.state() != from) {
+            return false;
+        }
+        long openedAt = to == State.OPEN ? nanoClock.getAsLong() : current.openedAt();
+        if (status.compareAndSet(current, new Status(to, openedAt))) {
+            transitions.get(to).increment();
+            return true;
+        }
+        return false;
+    }
+
+    private record Status(State state, long openedAt) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.fireproject.infra.security;
+
+import com.fireproject.model.user.User;
+import com.fireproject.model.user.UserChangedEvent;
+import com.fireproject.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Loads the user entity once per TTL instead of once per request. Entries are dropped
+ * explicitly when a {@link UserChangedEvent} is published for that username.
+ */
+@Component
+@ConditionalOnProperty(name = "api.security.principal.source", havingValue = "cache")
+public class CachingPrincipalResolver implements PrincipalResolver {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> principals;
+
+    public CachingPrincipalResolver(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${api.security.principal.cache.max-size:10000}") long maxSize,
+            @Value("${api.security.principal.cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "security.principals");
+    }
+
+    @Override
+    public User resolve(TokenService.VerifiedToken token) {
+        if (token.subject() == null) {
+            return null;
+        }
+        // Unknown users are not cached, so a later registration is visible immediately
+        return principals.get(token.subject(), username -> (User) userRepository.findByUsername(username));
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        principals.invalidate(event.username());
+    }
+}
@@ -0,0 +1,27 @@
+package com.fireproject.infra.security;
+
+import com.fireproject.model.user.User;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the principal straight from the signed claims, so authenticated requests
+ * never touch the database. A deleted user, or one whose role changed, keeps the token's
+ * identity until it expires.
+ */
+@Component
+@ConditionalOnProperty(name = "api.security.principal.source", havingValue = "claims", matchIfMissing = true)
+public class ClaimsPrincipalResolver implements PrincipalResolver {
+
+    @Override
+    public User resolve(TokenService.VerifiedToken token) {
+        if (token.subject() == null || token.userId() == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(token.userId());
+        user.setUsername(token.subject());
+        user.setRole(token.role());
+        return user;
+    }
+}
@@ -0,0 +1,15 @@
+package com.fireproject.infra.security;
+
+import com.fireproject.model.user.User;
+
+/**
+ * Turns a verified token into the authenticated principal. Selected with
+ * api.security.principal.source: "claims" (default) or "cache".
+ */
+public interface PrincipalResolver {
+
+    /**
+     * @return the principal, or {@code null} when the token does not map to a usable user
+     */
+    User resolve(TokenService.VerifiedToken token);
+}
@@ -1,7 +1,14 @@
 package com.fireproject.infra.security;
 
+import com.fireproject.infra.ratelimit.RateLimitFilter;
+import com.fireproject.infra.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,6 +23,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
 import java.util.Locale;
 
 @Configuration
@@ -28,6 +36,9 @@ public class SecurityConfigurations {
     @Autowired
     private MessageSource messageSource;
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
 	@Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
         return httpSecurity
@@ -36,6 +47,10 @@ public class SecurityConfigurations {
                 .authorizeHttpRequests(auth -> auth
                     .requestMatchers(HttpMethod.POST, "/auth/**").permitAll()
                     .requestMatchers("/error").permitAll()
+                    // Scraped by Prometheus and probed by the orchestrator, neither of which holds a JWT
+                    .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
+                    // Cache flush, job queue and raw metrics are operator tools, not user features
+                    .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
                     .requestMatchers(
                             "/v3/api-docs/**",
                             "/swagger-ui/**",
@@ -56,6 +71,7 @@ public class SecurityConfigurations {
                         })
                 )
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(new RateLimitFilter(rateLimiter, messageSource), SecurityFilter.class)
                 .build();
     }
 
@@ -65,8 +81,13 @@ public class SecurityConfigurations {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // Hashing runs on its own bounded pool; see BoundedPasswordEncoder
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(
+            @Value("${api.security.password.threads:2}") int threads,
+            @Value("${api.security.password.queue-capacity:32}") int queueCapacity,
+            @Value("${api.security.password.timeout:2s}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity, timeout, meterRegistry);
     }
 }
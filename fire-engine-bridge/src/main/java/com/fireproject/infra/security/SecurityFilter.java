@@ -1,12 +1,17 @@
 package com.fireproject.infra.security;
 
-import com.fireproject.repository.UserRepository;
+import com.fireproject.infra.jfr.PrincipalLookupEvent;
+import com.fireproject.infra.jfr.TokenVerifyEvent;
+import com.fireproject.model.user.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -16,28 +21,47 @@ import java.io.IOException;
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
-    @Autowired
-	private TokenService tokenService;
+    private static final String AUTHENTICATION_ATTRIBUTE = SecurityFilter.class.getName() + ".AUTHENTICATION";
 
-    @Autowired
-	private UserRepository userRepository;
+	private final TokenService tokenService;
+
+	private final PrincipalResolver principalResolver;
+
+    // Per-stage latency, so a slow request can be pinned on the token or on the user lookup
+    private final Timer tokenVerify;
+    private final Timer principalLookup;
+    private final String resolverName;
+
+    public SecurityFilter(TokenService tokenService, PrincipalResolver principalResolver, MeterRegistry meterRegistry) {
+        this.tokenService = tokenService;
+        this.principalResolver = principalResolver;
+        this.tokenVerify = stageTimer("token_verify", meterRegistry);
+        this.principalLookup = stageTimer("principal_lookup", meterRegistry);
+        this.resolverName = principalResolver.getClass().getSimpleName();
+    }
 	
 	@Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        // The async dispatch reuses what the first dispatch verified, so it is not timed twice
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                && request.getAttribute(AUTHENTICATION_ATTRIBUTE) instanceof Authentication authentication) {
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            filterChain.doFilter(request, response);
+            return;
+        }
         // Get header's token
         var authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             var token = authHeader.replace("Bearer ", "");
             try{
-                var userName = tokenService.getSubject(token); // extract username
-                if (userName != null) {
-                    // Valid token
-                    var user = userRepository.findByUsername(userName);
-                    if (user != null) {
-                        var authentication = new UsernamePasswordAuthenticationToken(
-                                user, token, user.getAuthorities()); // Forcing login
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                    }
+                var verified = verify(token); // signature, issuer and expiry
+                // Valid token: resolve the principal without a per-request DB query
+                var user = resolve(verified);
+                if (user != null) {
+                    var authentication = new UsernamePasswordAuthenticationToken(
+                            user, token, user.getAuthorities()); // Forcing login
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    request.setAttribute(AUTHENTICATION_ATTRIBUTE, authentication);
                 }
             } catch (RuntimeException e) {
                 // If token is invalid, we just don't set authentication
@@ -46,5 +70,45 @@ public class SecurityFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    // Async results (CompletableFuture, streamed batches) are written on a second dispatch that
+    // starts with an empty SecurityContext; restore the authentication of the first dispatch
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private TokenService.VerifiedToken verify(String token) {
+        var event = new TokenVerifyEvent();
+        event.start();
+        try {
+            var verified = tokenVerify.record(() -> tokenService.verify(token));
+            event.valid = true;
+            return verified;
+        } finally {
+            event.finish();
+        }
+    }
+
+    private User resolve(TokenService.VerifiedToken verified) {
+        var event = new PrincipalLookupEvent();
+        event.resolver = resolverName;
+        event.start();
+        try {
+            var user = principalLookup.record(() -> principalResolver.resolve(verified));
+            event.found = user != null;
+            return user;
+        } finally {
+            event.finish();
+        }
+    }
+
+    private static Timer stageTimer(String stage, MeterRegistry meterRegistry) {
+        return Timer.builder("fire.security.stage")
+                .description("Time spent authenticating a request, by stage")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 	
 }
@@ -1,13 +1,19 @@
 package com.fireproject.infra.security;
 import com.fireproject.model.user.User;
+import com.fireproject.model.user.UserRole;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
@@ -15,16 +21,33 @@ import java.time.ZoneOffset;
 @Service
 public class TokenService {
 
-    @Value("${api.security.secret:defaultSecret123}")
-    private String apiSecret;
+    private static final String ISSUER = "fire project";
+
+    // Algorithm and JWTVerifier are immutable and thread-safe, so one instance serves every request
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public TokenService(
+            @Value("${api.security.secret:defaultSecret123}") String apiSecret,
+            @Value("${api.security.token-cache.max-size:10000}") long tokenCacheSize) {
+        this.algorithm = Algorithm.HMAC256(apiSecret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+    }
 
     public String generateToken(User user) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(apiSecret);
             return JWT.create()
-                    .withIssuer("fire project")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getUsername())
                     .withClaim("id", user.getId())
+                    .withClaim("role", user.getRole().name())
                     .withExpiresAt(generateExpirationDate())
                     .sign(algorithm);
         } catch (JWTCreationException exception){
@@ -33,23 +56,69 @@ public class TokenService {
     }
 
     public String getSubject(String token) {
+        return verify(token).subject();
+    }
+
+    /**
+     * Verifies signature, issuer and expiry. A token seen before is answered from a
+     * bounded cache until it expires, skipping the HMAC and parse work.
+     */
+    public VerifiedToken verify(String token) {
         if (token == null || token.isBlank()) {
             throw new RuntimeException("Token is null or empty");
         }
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
         try {
-            Algorithm algorithm = Algorithm.HMAC256(apiSecret); // validating signature
-            return JWT.require(algorithm)
-                    .withIssuer("fire project")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            DecodedJWT decoded = verifier.verify(token);
+            VerifiedToken verified = new VerifiedToken(decoded.getSubject(), decoded.getClaim("id").asLong(),
+                    role(decoded.getClaim("role").asString()), decoded.getExpiresAtAsInstant());
+            if (verified.expiresAt() != null) {
+                verifiedTokens.put(token, verified);
+            }
+            return verified;
         } catch (JWTVerificationException exception) {
             throw new RuntimeException("Invalid token signature or expiration");
         }
     }
 
+    // Tokens issued before roles existed carry no claim and stay plain users
+    private static UserRole role(String claim) {
+        if (claim == null) {
+            return UserRole.USER;
+        }
+        try {
+            return UserRole.valueOf(claim);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid token role");
+        }
+    }
+
     private Instant generateExpirationDate() {
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-06:00"));
     }
 
-}
\ No newline at end of file
+    public record VerifiedToken(String subject, Long userId, UserRole role, Instant expiresAt) {
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            long nanos = Duration.between(Instant.now(), verified.expiresAt()).toNanos();
+            return Math.max(0, nanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.fireproject.model.history;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/** Read model for analysis_history; rows are inserted by AnalysisHistoryJdbcRepository, not through JPA. */
+@Table(name = "analysis_history")
+@Entity(name = "AnalysisRecord")
+@Getter
+public class AnalysisRecord {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+
+	@Column(name = "request_json", nullable = false)
+	private String requestJson;
+
+	@Column(name = "response_json", nullable = false)
+	private String responseJson;
+
+	public AnalysisRecord() {
+	}
+}
@@ -0,0 +1,10 @@
+package com.fireproject.model.history;
+
+import com.fireproject.dto.FireResponse;
+import com.fireproject.model.portfolio.PortfolioKey;
+
+import java.time.Instant;
+
+/** An answered analysis waiting in the write-behind buffer. */
+public record PendingAnalysis(long userId, Instant createdAt, PortfolioKey request, FireResponse response) {
+}
@@ -0,0 +1,18 @@
+package com.fireproject.model.portfolio;
+
+import java.time.LocalDate;
+import java.util.SortedMap;
+
+/**
+ * Identity of a fitted model: the canonical allocation mix and the market session whose closes
+ * it was fitted on. The motor's fit also sees the current value, but only through its clip of
+ * the projected series at 1.0, which cannot bite once the value is large enough; below
+ * {@code minSharedValue} the exact value becomes part of the key.
+ */
+public record FitKey(SortedMap<String, Double> allocations, LocalDate marketDate, Double currentValue) {
+
+    public static FitKey of(PortfolioKey key, LocalDate marketDate, double minSharedValue) {
+        double value = Math.max(1.0, key.currentValue());
+        return new FitKey(key.allocations(), marketDate, value >= minSharedValue ? null : value);
+    }
+}
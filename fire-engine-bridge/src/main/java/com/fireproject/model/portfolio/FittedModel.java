@@ -0,0 +1,18 @@
+package com.fireproject.model.portfolio;
+
+import com.fireproject.dto.FireResponse;
+
+/**
+ * What the motor's market-data and regression stage produces for an allocation mix. Everything
+ * else in an answer is compounding over these numbers and the request's cash-flow inputs.
+ */
+public record FittedModel(double annualReturn, double confidenceScore, Double annualVolatility) {
+
+    /** The fit carried by a motor answer, or null if the answer does not expose one. */
+    public static FittedModel of(FireResponse response) {
+        if (response.annualReturn() == null || response.confidenceScore() == null) {
+            return null;
+        }
+        return new FittedModel(response.annualReturn(), response.confidenceScore(), response.annualVolatility());
+    }
+}
@@ -0,0 +1,30 @@
+package com.fireproject.model.portfolio;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Canonical form of an analysis request. Two payloads that the motor would treat
+ * the same way (ticker aliases, weight scale, sub-cent noise) produce equal keys.
+ */
+public record PortfolioKey(
+        int yearsToRetirement,
+        double currentValue,
+        double monthlyRetirementGoal,
+        double monthlySavings,
+        SortedMap<String, Double> allocations
+) {
+    /** Longest horizon any projection runs; bounds the per-year buffers sized from it. */
+    public static final int MAX_YEARS_TO_RETIREMENT = 100;
+
+    public Map<String, Object> toPayload() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("years_to_retirement", yearsToRetirement);
+        payload.put("current_value", currentValue);
+        payload.put("monthly_retirement_goal", monthlyRetirementGoal);
+        payload.put("monthly_savings", monthlySavings);
+        payload.put("allocations", allocations);
+        return payload;
+    }
+}
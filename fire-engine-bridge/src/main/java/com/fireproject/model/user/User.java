@@ -31,6 +31,10 @@ public class User implements UserDetails {
 	@Column(nullable = false)
 	private String password;
 
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private UserRole role = UserRole.USER;
+
 	public User() {
 	}
 	public User(String username, String email, String password) {
@@ -55,7 +59,7 @@ public class User implements UserDetails {
 
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
-		return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+		return List.of(new SimpleGrantedAuthority(role.authority()));
 	}
 
 	@Override
@@ -0,0 +1,8 @@
+package com.fireproject.model.user;
+
+/**
+ * Published whenever a user row is created or modified, so anything caching
+ * user data can drop its copy.
+ */
+public record UserChangedEvent(String username) {
+}
@@ -0,0 +1,14 @@
+package com.fireproject.model.user;
+
+/**
+ * Role stored on each user and carried in the token. Admins may use the actuator's
+ * operational endpoints (cache flush, job queue); everyone registers as USER.
+ */
+public enum UserRole {
+    USER,
+    ADMIN;
+
+    public String authority() {
+        return "ROLE_" + name();
+    }
+}
@@ -0,0 +1,49 @@
+package com.fireproject.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fireproject.model.history.PendingAnalysis;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Insert side of the analysis history. JPA cannot batch inserts into an IDENTITY table,
+ * so rows go through one JDBC batch per flush (MySQL needs rewriteBatchedStatements=true
+ * on the URL to turn that into a multi-row insert).
+ */
+@Repository
+public class AnalysisHistoryJdbcRepository {
+
+    private static final String INSERT = """
+            insert into analysis_history (user_id, created_at, request_json, response_json)
+            values (?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public AnalysisHistoryJdbcRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void insertAll(List<PendingAnalysis> batch) {
+        jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (statement, analysis) -> {
+            statement.setLong(1, analysis.userId());
+            statement.setTimestamp(2, Timestamp.from(analysis.createdAt()));
+            statement.setString(3, json(analysis.request().toPayload()));
+            statement.setString(4, json(analysis.response()));
+        });
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.fireproject.repository;
+
+import com.fireproject.model.history.AnalysisRecord;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AnalysisHistoryRepository extends JpaRepository<AnalysisRecord, Long> {
+
+	// Served by idx_analysis_history_user_created
+	Page<AnalysisRecord> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+}
@@ -4,8 +4,11 @@ import com.fireproject.model.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Long> {
 
 	UserDetails findByUsername(String username);
 	UserDetails findByEmail(String email);
+	List<User> findByUsernameOrEmail(String username, String email);
 }
@@ -0,0 +1,63 @@
+package com.fireproject.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fireproject.dto.AnalysisHistoryPage;
+import com.fireproject.dto.FireResponse;
+import com.fireproject.model.history.AnalysisRecord;
+import com.fireproject.repository.AnalysisHistoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class AnalysisHistoryService {
+
+    private final AnalysisHistoryRepository repository;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+
+    public AnalysisHistoryService(
+            AnalysisHistoryRepository repository,
+            ObjectMapper objectMapper,
+            @Value("${fire.history.max-page-size:100}") int maxPageSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /** Newest first. Principals without a user id have no stored history. */
+    public AnalysisHistoryPage page(Long userId, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        int pageNumber = Math.max(0, page);
+        if (userId == null) {
+            return new AnalysisHistoryPage(List.of(), pageNumber, pageSize, 0, 0);
+        }
+
+        Page<AnalysisRecord> records = repository.findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of(pageNumber, pageSize));
+        return new AnalysisHistoryPage(
+                records.map(this::toItem).getContent(),
+                pageNumber,
+                pageSize,
+                records.getTotalElements(),
+                records.getTotalPages());
+    }
+
+    private AnalysisHistoryPage.Item toItem(AnalysisRecord record) {
+        try {
+            return new AnalysisHistoryPage.Item(
+                    record.getId(),
+                    record.getCreatedAt(),
+                    objectMapper.readValue(record.getRequestJson(), new TypeReference<Map<String, Object>>() {}),
+                    objectMapper.readValue(record.getResponseJson(), FireResponse.class));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
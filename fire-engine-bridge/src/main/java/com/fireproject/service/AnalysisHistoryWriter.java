@@ -0,0 +1,168 @@
+package com.fireproject.service;
+
+import com.fireproject.dto.FireResponse;
+import com.fireproject.model.history.PendingAnalysis;
+import com.fireproject.model.portfolio.PortfolioKey;
+import com.fireproject.model.user.User;
+import com.fireproject.repository.AnalysisHistoryJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for the analysis history. The request thread only offers to a bounded
+ * queue; a single flusher drains it into JDBC batches once batch-size rows are waiting or
+ * flush-interval has passed since the oldest one. When the buffer is full, records are dropped
+ * (and counted) rather than slowing analyses down.
+ */
+@Service
+public class AnalysisHistoryWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisHistoryWriter.class);
+
+    private final AnalysisHistoryJdbcRepository repository;
+    private final BlockingQueue<PendingAnalysis> buffer;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Counter dropped;
+    private final Counter inserted;
+    private final Counter failed;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    public AnalysisHistoryWriter(
+            AnalysisHistoryJdbcRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${fire.history.enabled:true}") boolean enabled,
+            @Value("${fire.history.buffer-capacity:10000}") int bufferCapacity,
+            @Value("${fire.history.batch-size:200}") int batchSize,
+            @Value("${fire.history.flush-interval:1s}") Duration flushInterval) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+
+        this.dropped = Counter.builder("fire.history.dropped")
+                .description("History records discarded because the write-behind buffer was full")
+                .register(meterRegistry);
+        this.inserted = Counter.builder("fire.history.inserted")
+                .register(meterRegistry);
+        this.failed = Counter.builder("fire.history.failed")
+                .description("History records lost to a failed batch insert")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("fire.history.flush")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("fire.history.batch_size")
+                .register(meterRegistry);
+        Gauge.builder("fire.history.buffered", buffer, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = new Thread(this::drain, "fire-history-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 5_000);
+    }
+
+    /** Queues an answer for {@code userId}; never blocks. Answers without a user id are skipped. */
+    public void record(Long userId, PortfolioKey request, FireResponse response) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        if (!buffer.offer(new PendingAnalysis(userId, Instant.now(), request, response))) {
+            dropped.increment();
+        }
+    }
+
+    /** Id of the authenticated {@link User}, or null for other principals. */
+    public static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    private void drain() {
+        List<PendingAnalysis> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Shutdown: fall through, flush what we have and drain the rest without waiting
+                buffer.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Fills the batch until it is full or flush-interval has passed since its first record
+    private void collect(List<PendingAnalysis> batch) throws InterruptedException {
+        PendingAnalysis first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            PendingAnalysis next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingAnalysis> batch) {
+        long start = System.nanoTime();
+        try {
+            repository.insertAll(batch);
+            inserted.increment(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.warn("Error writing {} analyses to history: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.fireproject.service;
+
+import com.fireproject.dto.FireResponse;
+import com.fireproject.dto.JobStatus;
+import com.fireproject.infra.concurrent.FairQueue;
+import com.fireproject.infra.errors.ErrorManager;
+import com.fireproject.infra.errors.ServiceOverloadedException;
+import com.fireproject.model.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queued analyses for callers that can poll instead of holding a request open. Jobs wait in a
+ * {@link FairQueue} keyed by the submitting user, so a fixed pool of workers (sized to what the
+ * motor can absorb) serves users round-robin and a burst from one tenant cannot starve the rest.
+ * Jobs still queued at shutdown are failed, so pollers get an answer instead of waiting for expiry.
+ */
+@Service
+public class AnalysisJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisJobService.class);
+    private static final String SHUTDOWN_KEY = "error.jobs.shutdown";
+
+    private enum State { QUEUED, RUNNING, DONE, FAILED }
+
+    private final FireService fireService;
+    private final PortfolioCanonicalizer canonicalizer;
+    private final MessageSource messageSource;
+    private final FairQueue<String, Job> queue;
+    private final Cache<String, Job> jobs;
+    private final long windowNanos;
+    private volatile DispatchWindow window;
+    private final int workerCount;
+    private final Duration maxWait;
+    private final List<Thread> workers = new ArrayList<>();
+    private final Timer queueWait;
+    private final Counter rejected;
+    private volatile boolean stopping;
+
+    public AnalysisJobService(
+            FireService fireService,
+            PortfolioCanonicalizer canonicalizer,
+            MessageSource messageSource,
+            MeterRegistry meterRegistry,
+            @Value("${fire.jobs.workers:4}") int workerCount,
+            @Value("${fire.jobs.queue-capacity:1000}") int queueCapacity,
+            @Value("${fire.jobs.per-user-capacity:100}") int perUserCapacity,
+            @Value("${fire.jobs.retention:1h}") Duration retention,
+            @Value("${fire.jobs.max-wait:30s}") Duration maxWait) {
+        this.fireService = fireService;
+        this.canonicalizer = canonicalizer;
+        this.messageSource = messageSource;
+        this.workerCount = workerCount;
+        this.maxWait = maxWait;
+        this.queue = new FairQueue<>(queueCapacity, perUserCapacity);
+        this.jobs = Caffeine.newBuilder().expireAfterWrite(retention).build();
+        this.windowNanos = retention.toNanos();
+        this.window = new DispatchWindow(System.nanoTime(), Map.of());
+
+        this.queueWait = Timer.builder("fire.jobs.wait")
+                .description("Time a job spent queued before a worker picked it up")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("fire.jobs.rejected")
+                .description("Jobs refused because the queue or the user's share of it was full")
+                .register(meterRegistry);
+        Gauge.builder("fire.jobs.queue.depth", queue, FairQueue::size)
+                .register(meterRegistry);
+        Gauge.builder("fire.jobs.active_users", queue, FairQueue::activeKeys)
+                .description("Users with at least one queued job")
+                .register(meterRegistry);
+        Gauge.builder("fire.jobs.max_user_share", this, AnalysisJobService::maxUserShare)
+                .description("Largest fraction of recently dispatched jobs that belongs to a single user")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 1; i <= workerCount; i++) {
+            Thread worker = new Thread(this::work, "fire-job-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        workers.forEach(Thread::interrupt);
+        jobs.asMap().values().forEach(job -> job.abandon(message(SHUTDOWN_KEY, job.locale)));
+    }
+
+    /** Validates and queues the portfolio for the current user; 503 with Retry-After when full. */
+    public JobStatus submit(Map<String, Object> payload, Locale locale) {
+        canonicalizer.canonicalize(payload);
+        if (stopping) {
+            throw new ServiceOverloadedException(SHUTDOWN_KEY, 1);
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+
+        Job job = new Job(UUID.randomUUID().toString(), ownerOf(authentication), payload, context, locale);
+        if (!queue.offer(job.owner, job)) {
+            rejected.increment();
+            throw new ServiceOverloadedException("error.jobs.queue_full", 1);
+        }
+        jobs.put(job.id, job);
+        // Shutdown may have swept the jobs just before this one was added
+        if (stopping) {
+            job.abandon(message(SHUTDOWN_KEY, locale));
+        }
+        return job.status();
+    }
+
+    /**
+     * Current status of one of the caller's jobs. With a positive {@code wait} the future completes
+     * as soon as the job finishes, or after the (capped) wait with the job still pending.
+     */
+    public CompletableFuture<JobStatus> await(String id, Duration wait) {
+        Job job = jobs.getIfPresent(id);
+        if (job == null || !job.owner.equals(ownerOf(SecurityContextHolder.getContext().getAuthentication()))) {
+            throw new EntityNotFoundException(id);
+        }
+        long waitMillis = Math.min(wait.toMillis(), maxWait.toMillis());
+        if (waitMillis <= 0 || job.finished.isDone()) {
+            return CompletableFuture.completedFuture(job.status());
+        }
+        return job.finished.copy()
+                .completeOnTimeout(null, waitMillis, TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> job.status());
+    }
+
+    /** Queue depth per user and each user's share of the recently dispatched jobs. */
+    public Map<String, Object> fairness() {
+        Map<String, Long> counts = window().counts();
+        long dispatched = counts.values().stream().mapToLong(Long::longValue).sum();
+        Map<String, Double> shares = new LinkedHashMap<>();
+        counts.forEach((owner, count) -> shares.put(owner, (double) count / Math.max(1, dispatched)));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("workers", workerCount);
+        snapshot.put("queue_depth", queue.size());
+        snapshot.put("queued_by_user", queue.depthByKey());
+        snapshot.put("dispatched", dispatched);
+        snapshot.put("share_by_user", shares);
+        return snapshot;
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                run(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void run(Job job) {
+        if (!job.claim()) {
+            return;
+        }
+        long waited = System.nanoTime() - job.enqueuedAt;
+        queueWait.record(waited, TimeUnit.NANOSECONDS);
+        job.queueWaitMs = TimeUnit.NANOSECONDS.toMillis(waited);
+        window().record(job.owner);
+
+        // The worker acts as the submitter, so FireService forwards their token to the motor
+        SecurityContextHolder.setContext(job.securityContext);
+        try {
+            job.result = fireService.consultPythonMotor(job.payload);
+            job.state = State.DONE;
+        } catch (RuntimeException e) {
+            job.error = message(ErrorManager.clientMessageKey(e), job.locale);
+            job.state = State.FAILED;
+        } catch (Throwable e) {
+            // An escaping Error would end this worker for good and leave the job running
+            log.error("Analysis job {} failed: {}", job.id, e.toString());
+            job.error = message("error.motor.unavailable", job.locale);
+            job.state = State.FAILED;
+        } finally {
+            SecurityContextHolder.clearContext();
+            job.finished.complete(null);
+        }
+    }
+
+    private String message(String key, Locale locale) {
+        return messageSource.getMessage(key, null, key, locale);
+    }
+
+    private double maxUserShare() {
+        Map<String, Long> counts = window().counts();
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        if (total == 0) {
+            return 0;
+        }
+        return (double) counts.values().stream().mapToLong(Long::longValue).max().orElse(0) / total;
+    }
+
+    // Rolls to a new window once the current one is a retention period old
+    private DispatchWindow window() {
+        DispatchWindow current = window;
+        long now = System.nanoTime();
+        if (now - current.startedAt < windowNanos) {
+            return current;
+        }
+        synchronized (this) {
+            current = window;
+            if (now - current.startedAt >= windowNanos) {
+                // A window that ended more than a period ago says nothing about the present
+                Map<String, Long> carried = now - current.startedAt < 2 * windowNanos ? current.ownCounts() : Map.of();
+                current = new DispatchWindow(now, carried);
+                window = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Dispatches per user in a tumbling window of one retention period, plus the final counts of
+     * the window before it. Shares and their total are read over both, so they always cover the
+     * same period and add up to 1.
+     */
+    private static final class DispatchWindow {
+        final long startedAt;
+        final Map<String, Long> previous;
+        final Map<String, LongAdder> current = new ConcurrentHashMap<>();
+
+        DispatchWindow(long startedAt, Map<String, Long> previous) {
+            this.startedAt = startedAt;
+            this.previous = previous;
+        }
+
+        void record(String owner) {
+            current.computeIfAbsent(owner, o -> new LongAdder()).increment();
+        }
+
+        Map<String, Long> ownCounts() {
+            Map<String, Long> counts = new HashMap<>();
+            current.forEach((owner, count) -> counts.put(owner, count.sum()));
+            return counts;
+        }
+
+        Map<String, Long> counts() {
+            Map<String, Long> counts = new HashMap<>(previous);
+            current.forEach((owner, count) -> counts.merge(owner, count.sum(), Long::sum));
+            return counts;
+        }
+    }
+
+    private static String ownerOf(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof User user && user.getId() != null) {
+            return String.valueOf(user.getId());
+        }
+        return authentication.getName();
+    }
+
+    private static final class Job {
+        final String id;
+        final String owner;
+        final Map<String, Object> payload;
+        final SecurityContext securityContext;
+        final Locale locale;
+        final Instant submittedAt = Instant.now();
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<Void> finished = new CompletableFuture<>();
+        volatile State state = State.QUEUED;
+        volatile Long queueWaitMs;
+        volatile FireResponse result;
+        volatile String error;
+
+        Job(String id, String owner, Map<String, Object> payload, SecurityContext securityContext, Locale locale) {
+            this.id = id;
+            this.owner = owner;
+            this.payload = payload;
+            this.securityContext = securityContext;
+            this.locale = locale;
+        }
+
+        // A worker and the shutdown sweep may race for a queued job; exactly one of them gets it
+        synchronized boolean claim() {
+            if (state != State.QUEUED) {
+                return false;
+            }
+            state = State.RUNNING;
+            return true;
+        }
+
+        synchronized void abandon(String reason) {
+            if (state == State.QUEUED) {
+                error = reason;
+                state = State.FAILED;
+                finished.complete(null);
+            }
+        }
+
+        JobStatus status() {
+            return new JobStatus(id, state.name().toLowerCase(Locale.ROOT), submittedAt, queueWaitMs, result, error);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.fireproject.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * GET /actuator/analysisjobs shows the job queue per user and how dispatched work was shared,
+ * to check that no single tenant monopolizes the motor.
+ */
+@Component
+@Endpoint(id = "analysisjobs")
+public class AnalysisJobsEndpoint {
+
+    private final AnalysisJobService analysisJobService;
+
+    public AnalysisJobsEndpoint(AnalysisJobService analysisJobService) {
+        this.analysisJobService = analysisJobService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> fairness() {
+        return analysisJobService.fairness();
+    }
+}
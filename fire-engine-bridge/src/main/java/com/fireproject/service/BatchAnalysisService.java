@@ -0,0 +1,127 @@
+package com.fireproject.service;
+
+import com.fireproject.dto.BatchItemResult;
+import com.fireproject.infra.errors.ErrorManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.context.MessageSource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans a list of portfolios out to {@link FireService} with bounded parallelism.
+ * Runs on virtual threads when spring.threads.virtual.enabled is set on a JDK 21+
+ * runtime, otherwise on throttled platform threads.
+ */
+@Service
+public class BatchAnalysisService {
+
+    private final FireService fireService;
+    private final MessageSource messageSource;
+    private final AsyncTaskExecutor executor;
+    private final int maxItems;
+    private final int streamWindow;
+    private final Timer firstResultTimer;
+
+    public BatchAnalysisService(
+            FireService fireService,
+            MessageSource messageSource,
+            SimpleAsyncTaskExecutorBuilder executorBuilder,
+            MeterRegistry meterRegistry,
+            @Value("${fire.batch.parallelism:16}") int parallelism,
+            @Value("${fire.batch.max-items:500}") int maxItems,
+            @Value("${fire.batch.stream-window:32}") int streamWindow) {
+        this.fireService = fireService;
+        this.messageSource = messageSource;
+        this.maxItems = maxItems;
+        this.streamWindow = streamWindow;
+        this.firstResultTimer = Timer.builder("fire.batch.stream.first_result")
+                .description("Time from the start of a streamed batch until its first result is written")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        // The concurrency limit is shared by every batch on this node, so the motor never sees more than it
+        this.executor = new DelegatingSecurityContextAsyncTaskExecutor(executorBuilder
+                .threadNamePrefix("fire-batch-")
+                .concurrencyLimit(parallelism)
+                .build());
+    }
+
+    public void checkSize(List<Map<String, Object>> payloads) {
+        if (payloads == null || payloads.isEmpty() || payloads.size() > maxItems) {
+            throw new ValidationException("error.batch.size");
+        }
+    }
+
+    public List<BatchItemResult> analyzeAll(List<Map<String, Object>> payloads, Locale locale) {
+        checkSize(payloads);
+
+        List<CompletableFuture<BatchItemResult>> pending = new ArrayList<>(payloads.size());
+        for (int i = 0; i < payloads.size(); i++) {
+            pending.add(submit(i, payloads.get(i), locale));
+        }
+        return pending.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Hands each result to {@code sink} as soon as it is ready, in completion order.
+     * At most stream-window items are in flight or waiting to be written, so a slow
+     * reader throttles motor calls instead of growing a buffer on the heap.
+     */
+    public void stream(List<Map<String, Object>> payloads, Locale locale, ResultSink sink)
+            throws IOException, InterruptedException {
+        checkSize(payloads);
+
+        long start = System.nanoTime();
+        BlockingQueue<BatchItemResult> completed = new LinkedBlockingQueue<>();
+        int submitted = 0;
+        int inFlight = 0;
+
+        for (int written = 0; written < payloads.size(); written++) {
+            while (submitted < payloads.size() && inFlight < streamWindow) {
+                submit(submitted, payloads.get(submitted), locale).thenAccept(completed::add);
+                submitted++;
+                inFlight++;
+            }
+            // Blocks here, not in the workers, when the client reads slowly
+            sink.accept(completed.take());
+            inFlight--;
+            if (written == 0) {
+                firstResultTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface ResultSink {
+        void accept(BatchItemResult result) throws IOException;
+    }
+
+    private CompletableFuture<BatchItemResult> submit(int index, Map<String, Object> payload, Locale locale) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return BatchItemResult.success(index, fireService.consultPythonMotor(payload));
+            } catch (RuntimeException e) {
+                return BatchItemResult.failure(index, resolveMessage(e, locale));
+            }
+        }, executor);
+    }
+
+    private String resolveMessage(RuntimeException e, Locale locale) {
+        String key = ErrorManager.clientMessageKey(e);
+        return messageSource.getMessage(key, null, key, locale);
+    }
+}
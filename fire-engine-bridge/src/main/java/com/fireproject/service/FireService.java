@@ -1,52 +1,281 @@
 package com.fireproject.service;
 
 import com.fireproject.dto.FireResponse;
+import com.fireproject.dto.PortfolioRequest;
+import com.fireproject.engine.FireProjectionEngine;
+import com.fireproject.infra.cache.AnalysisCache;
+import com.fireproject.infra.cache.FittedModelCache;
+import com.fireproject.infra.errors.ServiceOverloadedException;
+import com.fireproject.infra.concurrent.SingleFlight;
+import com.fireproject.infra.marketdata.MarketCalendar;
+import com.fireproject.model.portfolio.FitKey;
+import com.fireproject.model.portfolio.FittedModel;
+import com.fireproject.model.portfolio.PortfolioKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.ValidationException;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 @Service
 public class FireService {
 
-    private final RestTemplate restTemplate;
+    private static final Logger log = LoggerFactory.getLogger(FireService.class);
+
+    // Who answered an analysis: the result cache, a cached fit, the motor, its stale fallback, or nobody
+    private static final List<String> SOURCES = List.of("cache", "fit", "motor", "stale", "error");
 
-    @Value("${python.api.url}")
-    private String pythonUrl;
+    private final MotorClient motorClient;
+    private final MotorBatcher motorBatcher;
+    private final PortfolioCanonicalizer canonicalizer;
+    private final AnalysisCache analysisCache;
+    private final MotorGuard motorGuard;
+    private final AnalysisHistoryWriter historyWriter;
+    private final MarketDataService marketData;
+    private final FittedModelCache fittedModels;
+    private final MarketCalendar marketCalendar;
+    private final FireProjectionEngine projectionEngine;
+    private final SingleFlight<PortfolioKey, FireResponse> motorCalls;
+    private final Counter localAnswers;
+    private final Map<String, Timer> answerTimers = new LinkedHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
 
-    public FireService(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public FireService(
+            MotorClient motorClient,
+            MotorBatcher motorBatcher,
+            PortfolioCanonicalizer canonicalizer,
+            AnalysisCache analysisCache,
+            MotorGuard motorGuard,
+            AnalysisHistoryWriter historyWriter,
+            MarketDataService marketData,
+            FittedModelCache fittedModels,
+            MarketCalendar marketCalendar,
+            FireProjectionEngine projectionEngine,
+            MeterRegistry meterRegistry) {
+        this.motorClient = motorClient;
+        this.motorBatcher = motorBatcher;
+        this.canonicalizer = canonicalizer;
+        this.analysisCache = analysisCache;
+        this.motorGuard = motorGuard;
+        this.historyWriter = historyWriter;
+        this.marketData = marketData;
+        this.fittedModels = fittedModels;
+        this.marketCalendar = marketCalendar;
+        this.projectionEngine = projectionEngine;
+        this.motorCalls = new SingleFlight<>(Counter.builder("fire.motor.coalesced")
+                .description("Analyze calls that waited on an identical in-flight motor request")
+                .register(meterRegistry));
+        this.localAnswers = Counter.builder("fire.fits.local_answers")
+                .description("Analyses answered from a cached fit without calling the motor")
+                .register(meterRegistry);
+        Gauge.builder("fire.motor.in_flight_keys", motorCalls, SingleFlight::inFlight)
+                .description("Distinct portfolios currently being computed by the motor")
+                .register(meterRegistry);
+        Gauge.builder("fire.analyze.in_flight", inFlight, AtomicInteger::get)
+                .description("Analyses accepted and not yet answered")
+                .register(meterRegistry);
+        for (String source : SOURCES) {
+            answerTimers.put(source, Timer.builder("fire.analyze")
+                    .description("Time to answer an analysis, by what answered it")
+                    .tag("source", source)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.meterRegistry = meterRegistry;
     }
+
     public FireResponse consultPythonMotor(Map<String, Object> data) {
-        String token = (String) SecurityContextHolder.getContext().getAuthentication().getCredentials();
+        return consult(canonicalizer.canonicalize(data));
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("Authorization", "Bearer " + token);
+    private FireResponse consult(PortfolioKey key) {
+        inFlight.incrementAndGet();
+        try {
+            FireResponse response = answer(key);
+            historyWriter.record(AnalysisHistoryWriter.currentUserId(), key, response);
+            return response;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
 
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(data, headers);
+    private FireResponse answer(PortfolioKey key) {
+        long startedAt = System.nanoTime();
+        FireResponse cached = analysisCache.lookup(key);
+        if (cached != null) {
+            return answered("cache", startedAt, cached);
+        }
+        FitKey fitKey = fittedModels.keyFor(key, marketCalendar.lastSession());
+        FireResponse local = answerFromFit(key, fitKey);
+        if (local != null) {
+            return answered("fit", startedAt, local);
+        }
 
+        // Store before the flight lands so late arrivals hit the cache instead of re-calling the motor.
+        // Stale fallbacks are never cached, so the next request tries the motor again.
         try {
-            FireResponse response = restTemplate.postForObject(pythonUrl, entity, FireResponse.class);
+            FireResponse answer = motorCalls.execute(key, () -> {
+                FireResponse response = callMotor(key);
+                if (!response.isStale()) {
+                    remember(key, fitKey, response);
+                }
+                return response;
+            });
+            return answered(answer.isStale() ? "stale" : "motor", startedAt, answer);
+        } catch (RuntimeException e) {
+            answered("error", startedAt, null);
+            throw e;
+        }
+    }
 
-            if (response == null)  {
-                throw new RuntimeException("Empty response from motor");
-            }
+    private FireResponse answered(String source, long startedAt, FireResponse response) {
+        answerTimers.get(source).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return response;
+    }
 
-            return response;
+    /**
+     * Same lookup, coalescing and guard as {@link #consultPythonMotor}, but with the non-blocking
+     * transport the returned future completes on the HTTP client's I/O thread and no request
+     * thread waits for the motor. With the blocking transport the answer is computed in place.
+     */
+    public CompletableFuture<FireResponse> consultPythonMotorAsync(PortfolioRequest request) {
+        PortfolioKey key = canonicalizer.canonicalize(request);
+        if (!motorClient.isNonBlocking()) {
+            return CompletableFuture.completedFuture(consult(key));
+        }
 
+        // Read the user and token now: the security context does not follow the future onto the I/O thread
+        Long userId = AnalysisHistoryWriter.currentUserId();
+
+        inFlight.incrementAndGet();
+        return answerAsync(key)
+                .whenComplete((response, error) -> inFlight.decrementAndGet())
+                .thenApply(response -> {
+                    historyWriter.record(userId, key, response);
+                    return response;
+                });
+    }
+
+    private CompletableFuture<FireResponse> answerAsync(PortfolioKey key) {
+        long startedAt = System.nanoTime();
+        FireResponse cached = analysisCache.lookup(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(answered("cache", startedAt, cached));
+        }
+        FitKey fitKey = fittedModels.keyFor(key, marketCalendar.lastSession());
+        FireResponse local = answerFromFit(key, fitKey);
+        if (local != null) {
+            return CompletableFuture.completedFuture(answered("fit", startedAt, local));
+        }
+
+        String token = currentToken();
+        return motorCalls.executeAsync(key, () -> motorGuard.callAsync(key, () -> motorBatcher.isEnabled()
+                        ? motorBatcher.analyzeAsync(key, token)
+                        : motorClient.analyzeAsync(key, token))
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw motorFailure(error);
+                    }
+                    if (!response.isStale()) {
+                        remember(key, fitKey, response);
+                    }
+                    return response;
+                }))
+                .whenComplete((response, error) -> answered(
+                        error != null ? "error" : response.isStale() ? "stale" : "motor", startedAt, response));
+    }
+
+    /**
+     * Only the allocation mix and the market session decide the fitted return, confidence and
+     * volatility; savings, goal, horizon and value are compounded over them. With a fit from an
+     * earlier motor answer this compounding runs in-process.
+     */
+    private FireResponse answerFromFit(PortfolioKey key, FitKey fitKey) {
+        FittedModel fit = fittedModels.lookup(fitKey);
+        if (fit == null) {
+            return null;
+        }
+        localAnswers.increment();
+        return projectionEngine.analyze(key, fit.annualReturn(), fit.confidenceScore())
+                .withAnnualVolatility(fit.annualVolatility());
+    }
+
+    private void remember(PortfolioKey key, FitKey fitKey, FireResponse response) {
+        analysisCache.store(key, response);
+        // Only tickers the motor has just priced successfully are worth storing locally
+        marketData.track(key.allocations().keySet());
+        FittedModel fit = FittedModel.of(response);
+        if (fit != null) {
+            fittedModels.store(fitKey, fit);
+        }
+    }
+
+    private FireResponse callMotor(PortfolioKey key) {
+        String token = currentToken();
+
+        try {
+            return motorGuard.call(key, () -> motorBatcher.isEnabled()
+                    ? motorBatcher.analyze(key, token)
+                    : motorClient.analyze(key, token));
         } catch (Exception e) {
-            System.err.println("Error calling Python motor: " + e.getMessage());
-            throw new ValidationException("error.motor.unavailable");
+            throw motorFailure(e);
         }
     }
 
-    private FireResponse createEmptyResponse() {
-        return new FireResponse(0.0, 0.0, false, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+    private static String currentToken() {
+        return (String) SecurityContextHolder.getContext().getAuthentication().getCredentials();
+    }
+
+    private RuntimeException motorFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String type = errorType(cause);
+        Counter.builder("fire.motor.errors")
+                .description("Motor failures surfaced to the caller, by type")
+                .tag("type", type)
+                .register(meterRegistry)
+                .increment();
+        if (cause instanceof ServiceOverloadedException overloaded) {
+            return overloaded;
+        }
+        log.warn("Error calling Python motor ({}): {}", type, cause.getMessage());
+        return new ValidationException("error.motor.unavailable");
+    }
+
+    private static String errorType(Throwable cause) {
+        if (cause instanceof ServiceOverloadedException) {
+            return "overloaded";
+        }
+        if (cause instanceof HttpClientErrorException) {
+            return "client_error";
+        }
+        if (cause instanceof HttpServerErrorException) {
+            return "server_error";
+        }
+        if (cause instanceof ResourceAccessException access) {
+            // No pooled connection in time vs. connect/read timeouts vs. refused or reset
+            if (access.getCause() instanceof ConnectionRequestTimeoutException) {
+                return "pool_timeout";
+            }
+            return access.getCause() instanceof InterruptedIOException ? "timeout" : "connection";
+        }
+        return "other";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,212 @@
+package com.fireproject.service;
+
+import com.fireproject.infra.marketdata.MarketDataStore;
+import com.fireproject.infra.marketdata.PriceColumnFile;
+import com.fireproject.infra.marketdata.PriceFeed;
+import com.fireproject.infra.marketdata.PriceFeed.DailyCloses;
+import com.fireproject.infra.marketdata.PriceRange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the local price store current. A ticker is ingested in full the first time the motor
+ * answers an analysis that holds it, up to {@code fire.market-data.max-tickers} tickers; after that a daily refresh fetches only the days since the last stored close.
+ * Adjusted closes are rewritten by the provider after a dividend or split, so the refresh checks
+ * the overlapping day and refetches the whole history when it no longer matches.
+ * Aliases are resolved through {@link TickerMapping} before anything touches the store.
+ */
+@Service
+public class MarketDataService {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketDataService.class);
+
+    // Relative tolerance for the overlap check; below this the provider only re-rounded
+    private static final double ADJUSTMENT_TOLERANCE = 1e-6;
+
+    private final MarketDataStore store;
+    private final PriceFeed feed;
+    private final TickerMapping tickerMapping;
+    private final boolean enabled;
+    private final int maxTickers;
+    private final LocalDate historyStart;
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ExecutorService ingestor;
+    private final Counter rowsWritten;
+    private final Counter refetches;
+    private final Counter failures;
+    private final Timer fetchTimer;
+
+    public MarketDataService(
+            MarketDataStore store,
+            PriceFeed feed,
+            TickerMapping tickerMapping,
+            MeterRegistry meterRegistry,
+            @Value("${fire.market-data.ingest.enabled:false}") boolean enabled,
+            @Value("${fire.market-data.history-start:2010-01-01}") LocalDate historyStart,
+            @Value("${fire.market-data.max-tickers:500}") int maxTickers) {
+        this.store = store;
+        this.feed = feed;
+        this.tickerMapping = tickerMapping;
+        this.enabled = enabled;
+        this.historyStart = historyStart;
+        this.maxTickers = maxTickers;
+        this.ingestor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "fire-market-data");
+            thread.setDaemon(true);
+            return thread;
+        });
+        known.addAll(store.tickers());
+
+        this.rowsWritten = Counter.builder("fire.market_data.rows_written")
+                .register(meterRegistry);
+        this.refetches = Counter.builder("fire.market_data.refetches")
+                .description("Full history downloads, for new tickers or after the provider re-adjusted closes")
+                .register(meterRegistry);
+        this.failures = Counter.builder("fire.market_data.failures")
+                .register(meterRegistry);
+        this.fetchTimer = Timer.builder("fire.market_data.fetch")
+                .register(meterRegistry);
+    }
+
+    /** Zero-copy view of the stored closes between two dates, or empty if the ticker is not stored. */
+    public Optional<PriceRange> history(String ticker, LocalDate from, LocalDate to) {
+        String canonical = tickerMapping.normalize(ticker);
+        if (!MarketDataStore.isValidTicker(canonical)) {
+            return Optional.empty();
+        }
+        return store.find(canonical)
+                .filter(series -> series.size() > 0)
+                .map(series -> series.range((int) from.toEpochDay(), (int) to.toEpochDay()));
+    }
+
+    /**
+     * Schedules a background ingest for any of these tickers the store does not have yet. Callers pass
+     * only tickers of a fresh motor answer, so unpriceable symbols never get a file; once the store
+     * tracks {@code maxTickers} tickers new ones are ignored.
+     */
+    public void track(Collection<String> tickers) {
+        if (!enabled || !store.isWriter()) {
+            return;
+        }
+        for (String ticker : tickers) {
+            String canonical = tickerMapping.normalize(ticker);
+            if (known.contains(canonical) || !MarketDataStore.isValidTicker(canonical)) {
+                continue;
+            }
+            if (known.size() + pending.size() >= maxTickers) {
+                log.debug("Market data store is full ({} tickers), not tracking {}", maxTickers, canonical);
+                return;
+            }
+            if (!pending.add(canonical)) {
+                continue;
+            }
+            try {
+                ingestor.execute(() -> {
+                    // Failed tickers are not retried per request; the daily refresh picks them up
+                    refresh(canonical);
+                    known.add(canonical);
+                    pending.remove(canonical);
+                });
+            } catch (RejectedExecutionException e) {
+                pending.remove(canonical);
+            }
+        }
+    }
+
+    /**
+     * Queues the daily refresh of every stored ticker on the ingest thread. The downloads can take
+     * minutes, and the scheduler's single thread also runs the motor health checks, so it only
+     * hands the work off. A refresh still running when the next one is due is not queued again.
+     */
+    @Scheduled(cron = "${fire.market-data.refresh-cron:0 30 18 * * MON-FRI}",
+            zone = "${fire.market-data.refresh-zone:America/New_York}")
+    public void refreshAll() {
+        if (!enabled || !store.isWriter() || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ingestor.execute(() -> {
+                try {
+                    store.tickers().forEach(this::refresh);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Brings one canonical ticker up to date and returns the number of rows written.
+     * Failures are counted and leave the stored history untouched.
+     */
+    public int refresh(String ticker) {
+        try {
+            PriceColumnFile series = store.series(ticker);
+            int written = series.size() == 0 ? refetch(ticker, series) : appendSince(ticker, series);
+            known.add(ticker);
+            return written;
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Error refreshing prices for {}: {}", ticker, e.getMessage());
+            return 0;
+        }
+    }
+
+    private int appendSince(String ticker, PriceColumnFile series) {
+        int last = series.lastDate();
+        DailyCloses recent = fetch(ticker, LocalDate.ofEpochDay(last));
+        int overlap = Arrays.binarySearch(recent.epochDays(), last);
+        if (overlap >= 0 && adjusted(series.closeOn(last), recent.closes()[overlap])) {
+            return refetch(ticker, series);
+        }
+        int added = series.append(recent.epochDays(), recent.closes());
+        rowsWritten.increment(added);
+        return added;
+    }
+
+    private int refetch(String ticker, PriceColumnFile series) {
+        DailyCloses full = fetch(ticker, historyStart);
+        if (full.size() == 0) {
+            throw new IllegalStateException("No price history returned");
+        }
+        series.replace(full.epochDays(), full.closes());
+        refetches.increment();
+        rowsWritten.increment(full.size());
+        return full.size();
+    }
+
+    private DailyCloses fetch(String ticker, LocalDate from) {
+        return fetchTimer.record(() -> feed.fetch(ticker, from));
+    }
+
+    private static boolean adjusted(double stored, double fetched) {
+        return Math.abs(fetched - stored) > ADJUSTMENT_TOLERANCE * Math.abs(stored);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ingestor.shutdownNow();
+    }
+}
@@ -0,0 +1,250 @@
+package com.fireproject.service;
+
+import com.fireproject.dto.FireResponse;
+import com.fireproject.dto.MotorBatchItem;
+import com.fireproject.model.portfolio.PortfolioKey;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Micro-batching in front of the motor. Analyses that miss every cache within the same short
+ * window are sent as one /analyze/batch call, so the motor downloads the union of their tickers
+ * once instead of once per user; each caller then gets its own item back.
+ * <p>
+ * A single collector thread waits for the first request, keeps the batch open for
+ * {@code window} or until {@code max-size} requests have arrived, and hands it off; the HTTP call
+ * itself never runs on the collector. A window that closes with a single request sends it to
+ * the plain /analyze endpoint. Each caller still goes through {@link MotorGuard}, so the
+ * bulkhead bounds how many requests can be queued here, and a failed batch counts as a failure
+ * for every analysis in it.
+ * <p>
+ * A batch carries the bearer token of its first request, so the other portfolios in it reach the
+ * motor under that user's token. This is acceptable because the token is not an authorization
+ * there: the bridge has already authenticated every caller, the motor's HTTPBearer only checks
+ * that a token is present, and an answer depends on the portfolio alone. Nothing in the motor
+ * logs, limits or attributes work by token; if it ever does, batches must be split per token.
+ */
+@Component
+public class MotorBatcher {
+
+    private final MotorClient motorClient;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxSize;
+    private final long syncWaitNanos;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final AsyncTaskExecutor dispatchExecutor;
+    private final DistributionSummary batchSizes;
+    private final Timer queueWait;
+    private volatile boolean running = true;
+    private Thread collector;
+
+    public MotorBatcher(
+            MotorClient motorClient,
+            SimpleAsyncTaskExecutorBuilder executorBuilder,
+            MeterRegistry meterRegistry,
+            @Value("${fire.motor.batching.enabled:false}") boolean enabled,
+            @Value("${fire.motor.batching.window:5ms}") Duration window,
+            @Value("${fire.motor.batching.max-size:16}") int maxSize,
+            @Value("${python.api.http.read-timeout:60s}") Duration readTimeout) {
+        this.motorClient = motorClient;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxSize = maxSize;
+        this.syncWaitNanos = window.plus(readTimeout).toNanos();
+        this.dispatchExecutor = executorBuilder.threadNamePrefix("motor-batch-").build();
+        this.batchSizes = DistributionSummary.builder("fire.motor.batch.size")
+                .description("Analyses sent to the motor together in one call")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue((double) maxSize)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("fire.motor.batch.queue_wait")
+                .description("Time an analysis waited for its batch window to close")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        collector = new Thread(this::collect, "fire-motor-batcher");
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (collector != null) {
+            collector.interrupt();
+            collector.join(5_000);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Blocking transport: waits on the request thread for this portfolio's item of its batch, at
+     * most one window plus the motor's read timeout, and then fails as a read timeout would.
+     */
+    public FireResponse analyze(PortfolioKey key, String token) {
+        try {
+            return analyzeAsync(key, token).orTimeout(syncWaitNanos, TimeUnit.NANOSECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new ResourceAccessException("Motor batch timed out",
+                        new InterruptedIOException("No answer within " + Duration.ofNanos(syncWaitNanos)));
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public CompletableFuture<FireResponse> analyzeAsync(PortfolioKey key, String token) {
+        Pending pending = new Pending(key, token, System.nanoTime(), new CompletableFuture<>());
+        if (!running) {
+            rejectShutDown(pending);
+            return pending.result();
+        }
+        queue.add(pending);
+        // Shutdown may have begun after the check and the collector's final drain may be over;
+        // whichever of the two removes the request from the queue completes it
+        if (!running && queue.remove(pending)) {
+            rejectShutDown(pending);
+        }
+        return pending.result();
+    }
+
+    private void collect() {
+        List<Pending> batch = new ArrayList<>(maxSize);
+        while (running) {
+            try {
+                fill(batch);
+            } catch (InterruptedException e) {
+                // Shutdown: whatever is already waiting is still sent
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                List<Pending> ready = List.copyOf(batch);
+                batch.clear();
+                try {
+                    dispatch(ready);
+                } catch (RuntimeException e) {
+                    ready.forEach(pending -> complete(pending, null, e));
+                }
+            }
+        }
+        // Requests queued after the last batch left would otherwise never complete
+        List<Pending> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        leftover.forEach(MotorBatcher::rejectShutDown);
+    }
+
+    private static void rejectShutDown(Pending pending) {
+        pending.result().completeExceptionally(new IllegalStateException("Motor batcher is shut down"));
+    }
+
+    // Blocks for the first request, then keeps the batch open for one window or until it is full
+    private void fill(List<Pending> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxSize) {
+            queue.drainTo(batch, maxSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxSize || remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        long now = System.nanoTime();
+        for (Pending pending : batch) {
+            queueWait.record(now - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        batchSizes.record(batch.size());
+
+        Pending first = batch.get(0);
+        if (batch.size() == 1) {
+            CompletableFuture<FireResponse> call = motorClient.isNonBlocking()
+                    ? motorClient.analyzeAsync(first.key(), first.token())
+                    : CompletableFuture.supplyAsync(() -> motorClient.analyze(first.key(), first.token()), dispatchExecutor);
+            call.whenComplete((response, error) -> complete(first, response, error));
+            return;
+        }
+
+        List<PortfolioKey> keys = batch.stream().map(Pending::key).toList();
+        CompletableFuture<List<MotorBatchItem>> call = motorClient.isNonBlocking()
+                ? motorClient.analyzeBatchAsync(keys, first.token())
+                : CompletableFuture.supplyAsync(() -> motorClient.analyzeBatch(keys, first.token()), dispatchExecutor);
+        call.whenComplete((items, error) -> split(batch, items, error));
+    }
+
+    private static void split(List<Pending> batch, List<MotorBatchItem> items, Throwable error) {
+        if (error == null && items.size() != batch.size()) {
+            error = new IllegalStateException("Motor answered " + items.size() + " items for a batch of " + batch.size());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (error != null) {
+                complete(batch.get(i), null, error);
+                continue;
+            }
+            MotorBatchItem item = items.get(i);
+            complete(batch.get(i), item.result(), item.result() == null ? itemFailure(item) : null);
+        }
+    }
+
+    // The exception the item's own /analyze call would have raised, so MotorGuard judges it alike
+    private static RuntimeException itemFailure(MotorBatchItem item) {
+        HttpStatusCode status = HttpStatusCode.valueOf(item.status() == null ? 500 : item.status());
+        byte[] body = item.detail() == null ? null : item.detail().getBytes(StandardCharsets.UTF_8);
+        return status.is4xxClientError()
+                ? HttpClientErrorException.create(status, String.valueOf(item.detail()), HttpHeaders.EMPTY, body, StandardCharsets.UTF_8)
+                : HttpServerErrorException.create(status, String.valueOf(item.detail()), HttpHeaders.EMPTY, body, StandardCharsets.UTF_8);
+    }
+
+    private static void complete(Pending pending, FireResponse response, Throwable error) {
+        if (error == null) {
+            pending.result().complete(response);
+        } else {
+            pending.result().completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+        }
+    }
+
+    private record Pending(PortfolioKey key, String token, long enqueuedAt, CompletableFuture<FireResponse> result) {
+    }
+}
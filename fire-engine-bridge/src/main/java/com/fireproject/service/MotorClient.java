@@ -0,0 +1,373 @@
+package com.fireproject.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fireproject.dto.FireResponse;
+import com.fireproject.dto.MotorBatchItem;
+import com.fireproject.dto.PortfolioRequest;
+import com.fireproject.infra.http.MotorEndpoint;
+import com.fireproject.infra.http.MotorEndpointPool;
+import com.fireproject.infra.http.MotorHttpMetrics;
+import com.fireproject.model.portfolio.PortfolioKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends an analysis to one motor replica chosen by {@link MotorEndpointPool}. With hedging
+ * enabled, a call that outlives the endpoint's recent p95 latency is duplicated to a second
+ * replica and whichever answers first wins.
+ * <p>
+ * {@link #analyze} uses the pooled {@link RestTemplate}. When python.api.transport is {@code async},
+ * {@link #analyzeAsync} sends through the non-blocking Apache client and no thread waits on the motor.
+ * <p>
+ * With python.api.wire-format set to {@code cbor} the request goes out as CBOR and the motor is
+ * asked to answer in CBOR. A replica that turns CBOR down with a 415 or 422 is retried once in
+ * JSON and only spoken to in JSON from then on, so motors without CBOR support keep working.
+ */
+@Component
+public class MotorClient {
+
+    private static final ContentType CBOR = ContentType.create(MediaType.APPLICATION_CBOR_VALUE);
+    private static final MediaType JSON_FALLBACK = new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.9"));
+    private static final String CBOR_FIRST = MediaType.APPLICATION_CBOR_VALUE + ", " + JSON_FALLBACK;
+
+    private final RestTemplate restTemplate;
+    private final CloseableHttpAsyncClient asyncClient;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final MotorEndpointPool endpoints;
+    private final AsyncTaskExecutor hedgeExecutor;
+    private final boolean hedging;
+    private final Duration hedgeMinDelay;
+    private final boolean preferCbor;
+    private final Counter hedged;
+    private final Counter hedgeWins;
+    private final Counter jsonFallbacks;
+    private final MotorHttpMetrics asyncMetrics;
+
+    public MotorClient(
+            RestTemplate restTemplate,
+            Optional<CloseableHttpAsyncClient> asyncClient,
+            ObjectMapper objectMapper,
+            MotorEndpointPool endpoints,
+            SimpleAsyncTaskExecutorBuilder executorBuilder,
+            MeterRegistry meterRegistry,
+            @Value("${python.api.hedging.enabled:false}") boolean hedging,
+            @Value("${python.api.hedging.min-delay:2s}") Duration hedgeMinDelay,
+            @Value("${python.api.wire-format:cbor}") String wireFormat) {
+        this.restTemplate = restTemplate;
+        this.asyncClient = asyncClient.orElse(null);
+        this.objectMapper = objectMapper;
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+        this.endpoints = endpoints;
+        this.hedging = hedging;
+        this.hedgeMinDelay = hedgeMinDelay;
+        this.preferCbor = "cbor".equalsIgnoreCase(wireFormat);
+        this.hedgeExecutor = executorBuilder.threadNamePrefix("motor-hedge-").build();
+        this.hedged = Counter.builder("fire.motor.hedged")
+                .description("Motor calls duplicated to a second replica after exceeding the p95 latency")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("fire.motor.hedge_wins")
+                .description("Hedged calls where the second replica answered first")
+                .register(meterRegistry);
+        this.jsonFallbacks = Counter.builder("fire.motor.json_fallbacks")
+                .description("Motor replicas that rejected a CBOR request and were switched to JSON")
+                .register(meterRegistry);
+        // The RestTemplate records through its interceptor; the async client has no such hook
+        this.asyncMetrics = new MotorHttpMetrics(meterRegistry);
+    }
+
+    /** The bearer token is passed in because hedged attempts run off the request thread. */
+    public FireResponse analyze(PortfolioKey key, String token) {
+        PortfolioRequest request = PortfolioRequest.from(key);
+
+        MotorEndpoint primary = endpoints.select(null);
+        if (!hedging || endpoints.size() < 2) {
+            return post(primary, primary.analyzeUrl(), request, FireResponse.class, token);
+        }
+
+        CompletableFuture<FireResponse> first = CompletableFuture.supplyAsync(
+                () -> post(primary, primary.analyzeUrl(), request, FireResponse.class, token), hedgeExecutor);
+        try {
+            return first.get(primary.p95(hedgeMinDelay).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            MotorEndpoint secondary = endpoints.select(primary);
+            if (secondary == null) {
+                return join(first);
+            }
+            hedged.increment();
+            CompletableFuture<FireResponse> second = CompletableFuture.supplyAsync(
+                    () -> post(secondary, secondary.analyzeUrl(), request, FireResponse.class, token), hedgeExecutor);
+            return join(firstSuccessful(first, second));
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the motor", e);
+        }
+    }
+
+    public boolean isNonBlocking() {
+        return asyncClient != null;
+    }
+
+    public CompletableFuture<FireResponse> analyzeAsync(PortfolioKey key, String token) {
+        PortfolioRequest request = PortfolioRequest.from(key);
+
+        MotorEndpoint primary = endpoints.select(null);
+        CompletableFuture<FireResponse> first = send(primary, primary.analyzeUrl(), request, FireResponse.class, token);
+        if (!hedging || endpoints.size() < 2) {
+            return first;
+        }
+
+        Executor afterP95 = CompletableFuture.delayedExecutor(primary.p95(hedgeMinDelay).toMillis(), TimeUnit.MILLISECONDS);
+        CompletableFuture<FireResponse> hedge = CompletableFuture.runAsync(() -> { }, afterP95).thenCompose(ignored -> {
+            MotorEndpoint secondary = first.isDone() ? null : endpoints.select(primary);
+            if (secondary == null) {
+                return first;
+            }
+            hedged.increment();
+            return send(secondary, secondary.analyzeUrl(), request, FireResponse.class, token);
+        });
+        return firstSuccessful(first, hedge);
+    }
+
+    /**
+     * One motor call for several portfolios, answered item by item in request order. Used by
+     * {@link MotorBatcher}; a batch is never hedged, since duplicating it would double the work
+     * of every caller in it.
+     */
+    public List<MotorBatchItem> analyzeBatch(List<PortfolioKey> keys, String token) {
+        MotorEndpoint endpoint = endpoints.select(null);
+        return Arrays.asList(post(endpoint, endpoint.batchUrl(), requests(keys), MotorBatchItem[].class, token));
+    }
+
+    public CompletableFuture<List<MotorBatchItem>> analyzeBatchAsync(List<PortfolioKey> keys, String token) {
+        MotorEndpoint endpoint = endpoints.select(null);
+        return send(endpoint, endpoint.batchUrl(), requests(keys), MotorBatchItem[].class, token).thenApply(Arrays::asList);
+    }
+
+    private static List<PortfolioRequest> requests(List<PortfolioKey> keys) {
+        return keys.stream().map(PortfolioRequest::from).toList();
+    }
+
+    private <T> CompletableFuture<T> send(MotorEndpoint endpoint, String url, Object body, Class<T> type, String token) {
+        if (!useCbor(endpoint)) {
+            return send(endpoint, url, body, type, token, false);
+        }
+        return send(endpoint, url, body, type, token, true).exceptionallyCompose(error -> {
+            if (!(error instanceof HttpClientErrorException rejected) || !rejectsCbor(rejected)) {
+                return CompletableFuture.failedFuture(error);
+            }
+            return send(endpoint, url, body, type, token, false).thenApply(response -> {
+                fallBackToJson(endpoint);
+                return response;
+            });
+        });
+    }
+
+    private <T> CompletableFuture<T> send(MotorEndpoint endpoint, String url, Object body, Class<T> type, String token,
+                                          boolean cbor) {
+        byte[] payload;
+        try {
+            payload = (cbor ? cborMapper : objectMapper).writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        SimpleHttpRequest request = SimpleRequestBuilder.post(url)
+                .setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .setHeader(HttpHeaders.ACCEPT, cbor ? CBOR_FIRST : MediaType.APPLICATION_JSON_VALUE)
+                .setBody(payload, cbor ? CBOR : ContentType.APPLICATION_JSON)
+                .build();
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        MotorHttpMetrics.Call call = asyncMetrics.start(URI.create(url), payload.length);
+        long startedAt = endpoint.begin();
+        asyncClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                endpoint.end(startedAt);
+                call.end(response.getCode(), null);
+                try {
+                    result.complete(read(response, type));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                endpoint.end(startedAt);
+                call.end(null, e);
+                result.completeExceptionally(new ResourceAccessException("Motor call failed: " + e.getMessage(),
+                        e instanceof IOException io ? io : new IOException(e)));
+            }
+
+            @Override
+            public void cancelled() {
+                endpoint.end(startedAt);
+                call.end(null, new CancellationException());
+                result.completeExceptionally(new ResourceAccessException("Motor call cancelled"));
+            }
+        });
+        return result;
+    }
+
+    // Same outcome classes as RestTemplate, so MotorGuard treats both transports alike
+    private <T> T read(SimpleHttpResponse response, Class<T> type) {
+        HttpStatusCode status = HttpStatusCode.valueOf(response.getCode());
+        byte[] bytes = response.getBodyBytes();
+        if (status.is4xxClientError()) {
+            throw HttpClientErrorException.create(status, response.getReasonPhrase(), HttpHeaders.EMPTY, bytes, StandardCharsets.UTF_8);
+        }
+        if (!status.is2xxSuccessful()) {
+            throw HttpServerErrorException.create(status, response.getReasonPhrase(), HttpHeaders.EMPTY, bytes, StandardCharsets.UTF_8);
+        }
+        if (bytes == null || bytes.length == 0) {
+            throw new IllegalStateException("Empty response from motor");
+        }
+        ContentType contentType = response.getContentType();
+        boolean cbor = contentType != null && CBOR.isSameMimeType(contentType);
+        try {
+            return (cbor ? cborMapper : objectMapper).readValue(bytes, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T post(MotorEndpoint endpoint, String url, Object body, Class<T> type, String token) {
+        if (!useCbor(endpoint)) {
+            return post(endpoint, url, entity(body, token, false), type);
+        }
+        try {
+            return post(endpoint, url, entity(body, token, true), type);
+        } catch (HttpClientErrorException e) {
+            if (!rejectsCbor(e)) {
+                throw e;
+            }
+            T response = post(endpoint, url, entity(body, token, false), type);
+            fallBackToJson(endpoint);
+            return response;
+        }
+    }
+
+    private static HttpEntity<Object> entity(Object body, String token, boolean cbor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cbor) {
+            headers.setContentType(MediaType.APPLICATION_CBOR);
+            headers.setAccept(List.of(MediaType.APPLICATION_CBOR, JSON_FALLBACK));
+        } else {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        }
+        headers.set("Authorization", "Bearer " + token);
+        return new HttpEntity<>(body, headers);
+    }
+
+    private <T> T post(MotorEndpoint endpoint, String url, HttpEntity<Object> entity, Class<T> type) {
+        long startedAt = endpoint.begin();
+        try {
+            T response = restTemplate.postForObject(url, entity, type);
+            if (response == null) {
+                throw new IllegalStateException("Empty response from motor");
+            }
+            return response;
+        } finally {
+            endpoint.end(startedAt);
+        }
+    }
+
+    private boolean useCbor(MotorEndpoint endpoint) {
+        return preferCbor && endpoint.acceptsCbor();
+    }
+
+    // 415 from a motor that checks the media type, 422 from one that tried to read CBOR as JSON
+    private static boolean rejectsCbor(HttpClientErrorException e) {
+        return e.getStatusCode().isSameCodeAs(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                || e.getStatusCode().isSameCodeAs(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    private void fallBackToJson(MotorEndpoint endpoint) {
+        if (endpoint.acceptsCbor()) {
+            endpoint.fallBackToJson();
+            jsonFallbacks.increment();
+        }
+    }
+
+    // Completes with the first success; fails with the primary's error only if both attempts fail
+    private CompletableFuture<FireResponse> firstSuccessful(CompletableFuture<FireResponse> first,
+                                                            CompletableFuture<FireResponse> second) {
+        CompletableFuture<FireResponse> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        first.whenComplete((response, error) -> {
+            if (error == null) {
+                winner.complete(response);
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+        second.whenComplete((response, error) -> {
+            if (error == null) {
+                if (winner.complete(response)) {
+                    hedgeWins.increment();
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(first.handle((r, e) -> e).join());
+            }
+        });
+        return winner;
+    }
+
+    private static FireResponse join(CompletableFuture<FireResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException nested && nested.getCause() != null) {
+            cause = nested.getCause();
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,135 @@
+package com.fireproject.service;
+
+import com.fireproject.dto.FireResponse;
+import com.fireproject.infra.errors.ServiceOverloadedException;
+import com.fireproject.infra.resilience.Bulkhead;
+import com.fireproject.infra.resilience.CircuitBreaker;
+import com.fireproject.model.portfolio.PortfolioKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Resilience around the Python motor: a bulkhead limits concurrent calls, a circuit breaker
+ * stops sending traffic during a brown-out, and the last good answer per portfolio is kept
+ * so it can be served, flagged as stale, while the motor is unavailable.
+ */
+@Component
+public class MotorGuard {
+
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker breaker;
+    private final Cache<PortfolioKey, FireResponse> lastGood;
+    private final Counter staleServed;
+
+    public MotorGuard(
+            @Value("${fire.motor.bulkhead.max-concurrent:32}") int maxConcurrent,
+            @Value("${fire.motor.bulkhead.max-wait:100ms}") Duration maxWait,
+            @Value("${fire.motor.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${fire.motor.breaker.open-duration:30s}") Duration openDuration,
+            @Value("${fire.motor.breaker.half-open-probes:1}") int halfOpenProbes,
+            @Value("${fire.motor.fallback.max-size:10000}") long fallbackSize,
+            @Value("${fire.motor.fallback.ttl:24h}") Duration fallbackTtl,
+            MeterRegistry meterRegistry) {
+        this.bulkhead = new Bulkhead("python-motor", maxConcurrent, maxWait, meterRegistry);
+        this.breaker = new CircuitBreaker("python-motor", failureThreshold, openDuration, halfOpenProbes, meterRegistry);
+        this.lastGood = Caffeine.newBuilder()
+                .maximumSize(fallbackSize)
+                .expireAfterWrite(fallbackTtl)
+                .build();
+        this.staleServed = Counter.builder("fire.motor.stale_served")
+                .description("Analyses answered with a last-known-good result while the motor was unavailable")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the motor call under the bulkhead and breaker. Rejections and failures fall back to the
+     * last good answer for the same portfolio when one exists; otherwise the error propagates.
+     * A 4xx from the motor means the request was bad, not the motor, so it never trips the breaker.
+     */
+    public FireResponse call(PortfolioKey key, Supplier<FireResponse> motorCall) {
+        if (!bulkhead.tryAcquire()) {
+            return fallback(key, new ServiceOverloadedException("error.motor.overloaded", 1));
+        }
+        try {
+            if (!breaker.tryAcquire()) {
+                return fallback(key, new ServiceOverloadedException("error.motor.overloaded", breaker.retryAfterSeconds()));
+            }
+            try {
+                FireResponse response = motorCall.get();
+                breaker.onSuccess();
+                lastGood.put(key, response);
+                return response;
+            } catch (HttpClientErrorException e) {
+                breaker.onSuccess();
+                throw e;
+            } catch (RuntimeException e) {
+                breaker.onFailure();
+                return fallback(key, e);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /** Same policy for the non-blocking transport; the bulkhead never waits for a slot here. */
+    public CompletableFuture<FireResponse> callAsync(PortfolioKey key, Supplier<CompletableFuture<FireResponse>> motorCall) {
+        if (!bulkhead.tryAcquireNow()) {
+            return fallbackAsync(key, new ServiceOverloadedException("error.motor.overloaded", 1));
+        }
+        if (!breaker.tryAcquire()) {
+            bulkhead.release();
+            return fallbackAsync(key, new ServiceOverloadedException("error.motor.overloaded", breaker.retryAfterSeconds()));
+        }
+
+        CompletableFuture<FireResponse> call;
+        try {
+            call = motorCall.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.handle((response, error) -> {
+            bulkhead.release();
+            if (error == null) {
+                breaker.onSuccess();
+                lastGood.put(key, response);
+                return CompletableFuture.completedFuture(response);
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof HttpClientErrorException) {
+                breaker.onSuccess();
+                return CompletableFuture.<FireResponse>failedFuture(cause);
+            }
+            breaker.onFailure();
+            return fallbackAsync(key, cause);
+        }).thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<FireResponse> fallbackAsync(PortfolioKey key, Throwable failure) {
+        FireResponse previous = lastGood.getIfPresent(key);
+        if (previous == null) {
+            return CompletableFuture.failedFuture(failure);
+        }
+        staleServed.increment();
+        return CompletableFuture.completedFuture(previous.asStale());
+    }
+
+    private FireResponse fallback(PortfolioKey key, RuntimeException failure) {
+        FireResponse previous = lastGood.getIfPresent(key);
+        if (previous == null) {
+            throw failure;
+        }
+        staleServed.increment();
+        return previous.asStale();
+    }
+}
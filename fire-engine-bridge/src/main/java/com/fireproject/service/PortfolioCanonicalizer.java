@@ -0,0 +1,101 @@
+package com.fireproject.service;
+
+import com.fireproject.dto.PortfolioRequest;
+import com.fireproject.model.portfolio.PortfolioKey;
+import jakarta.validation.ValidationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+public class PortfolioCanonicalizer {
+
+    private static final double WEIGHT_SCALE = 1_000_000d;
+    private static final double MONEY_SCALE = 100d;
+
+    private final TickerMapping tickerMapping;
+
+    public PortfolioCanonicalizer(TickerMapping tickerMapping) {
+        this.tickerMapping = tickerMapping;
+    }
+
+    public PortfolioKey canonicalize(Map<String, Object> payload) {
+        if (payload == null || !(payload.get("allocations") instanceof Map<?, ?> rawAllocations) || rawAllocations.isEmpty()) {
+            throw new ValidationException("error.portfolio.invalid");
+        }
+        return canonicalize(
+                number(payload.get("years_to_retirement")),
+                number(payload.get("current_value")),
+                number(payload.get("monthly_retirement_goal")),
+                number(payload.get("monthly_savings")),
+                rawAllocations);
+    }
+
+    /** Same canonical form for a request whose shape Bean Validation has already checked. */
+    public PortfolioKey canonicalize(PortfolioRequest request) {
+        return canonicalize(
+                number(request.yearsToRetirement()),
+                number(request.currentValue()),
+                number(request.monthlyRetirementGoal()),
+                number(request.monthlySavings()),
+                request.allocations());
+    }
+
+    private PortfolioKey canonicalize(double years, double currentValue, double monthlyRetirementGoal,
+                                      double monthlySavings, Map<?, ?> rawAllocations) {
+        // Same alias resolution as the motor: later duplicates overwrite earlier ones
+        Map<String, Double> resolved = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : rawAllocations.entrySet()) {
+            resolved.put(tickerMapping.normalize(String.valueOf(entry.getKey())), number(entry.getValue()));
+        }
+
+        double totalWeight = resolved.values().stream().mapToDouble(Double::doubleValue).sum();
+        if (!(totalWeight > 0) || !Double.isFinite(totalWeight)) {
+            throw new ValidationException("error.portfolio.invalid");
+        }
+
+        TreeMap<String, Double> allocations = new TreeMap<>();
+        resolved.forEach((ticker, weight) -> allocations.put(ticker, round(weight / totalWeight, WEIGHT_SCALE)));
+
+        if (years != Math.rint(years) || years < 1 || years > PortfolioKey.MAX_YEARS_TO_RETIREMENT) {
+            throw new ValidationException("error.portfolio.invalid");
+        }
+
+        return new PortfolioKey(
+                (int) years,
+                round(currentValue, MONEY_SCALE),
+                round(monthlyRetirementGoal, MONEY_SCALE),
+                round(monthlySavings, MONEY_SCALE),
+                Collections.unmodifiableSortedMap(allocations));
+    }
+
+    private double number(Object value) {
+        double parsed = Double.NaN;
+        if (value instanceof Number n) {
+            parsed = n.doubleValue();
+        } else if (value instanceof String s) {
+            try {
+                parsed = Double.parseDouble(s.strip());
+            } catch (NumberFormatException ignored) {
+                // falls through to the validation error below
+            }
+        }
+        // "NaN" and "Infinity" parse, but would round to 0 or saturate into a plausible key
+        if (!Double.isFinite(parsed)) {
+            throw new ValidationException("error.portfolio.invalid");
+        }
+        return parsed;
+    }
+
+    private static double round(double value, double scale) {
+        double scaled = value * scale;
+        // Math.round clamps anything outside the long range instead of failing
+        if (!(Math.abs(scaled) < 0x1p63)) {
+            throw new ValidationException("error.portfolio.invalid");
+        }
+        return Math.round(scaled) / scale;
+    }
+}
@@ -0,0 +1,128 @@
+package com.fireproject.service;
+
+import com.fireproject.dto.SensitivityGridResult;
+import com.fireproject.engine.SensitivityGridCalculator;
+import com.fireproject.model.portfolio.PortfolioKey;
+import jakarta.validation.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Reads the grid axes from the request and evaluates them against a single fitted
+ * annual return. Axes that are omitted collapse to the portfolio's own value.
+ */
+@Service
+public class SensitivityGridService {
+
+    private final FireService fireService;
+    private final PortfolioCanonicalizer canonicalizer;
+    private final SensitivityGridCalculator calculator;
+    private final int maxCells;
+
+    public SensitivityGridService(
+            FireService fireService,
+            PortfolioCanonicalizer canonicalizer,
+            SensitivityGridCalculator calculator,
+            @Value("${fire.grid.max-cells:250000}") int maxCells) {
+        this.fireService = fireService;
+        this.canonicalizer = canonicalizer;
+        this.calculator = calculator;
+        this.maxCells = maxCells;
+    }
+
+    public SensitivityGridResult evaluate(Map<String, Object> payload) {
+        PortfolioKey key = canonicalizer.canonicalize(payload);
+        Map<?, ?> grid = payload.get("grid") instanceof Map<?, ?> g ? g : Map.of();
+
+        // Size every axis and check the cell budget before anything is allocated
+        LinearAxis savings = linearAxis(grid.get("monthly_savings"), key.monthlySavings());
+        LinearAxis goals = linearAxis(grid.get("monthly_retirement_goal"), key.monthlyRetirementGoal());
+        HorizonAxis horizons = horizonAxis(grid.get("years_to_retirement"), key.yearsToRetirement());
+
+        long cells = (long) savings.steps() * goals.steps() * horizons.length();
+        if (savings.steps() > maxCells || goals.steps() > maxCells || horizons.length() > maxCells
+                || cells > maxCells) {
+            throw new ValidationException("error.grid.invalid");
+        }
+
+        double annualReturn = payload.get("annual_return") instanceof Number n
+                ? n.doubleValue()
+                : fittedReturn(payload);
+
+        return calculator.compute(key.currentValue(), annualReturn,
+                savings.values(), horizons.values(), goals.values());
+    }
+
+    private double fittedReturn(Map<String, Object> payload) {
+        // Only the allocation matters for the fit, so one (cached) motor call serves the whole grid
+        Double annualReturn = fireService.consultPythonMotor(payload).annualReturn();
+        if (annualReturn == null) {
+            throw new ValidationException("error.simulation.model_unavailable");
+        }
+        return annualReturn;
+    }
+
+    private static LinearAxis linearAxis(Object spec, double fallback) {
+        if (!(spec instanceof Map<?, ?> range)) {
+            return new LinearAxis(fallback, fallback, 1);
+        }
+        double from = number(range.get("from"));
+        double to = number(range.get("to"));
+        double steps = number(range.get("steps"));
+        if (steps < 1 || steps > Integer.MAX_VALUE || steps != Math.rint(steps)
+                || to < from || (steps == 1 && to != from)) {
+            throw new ValidationException("error.grid.invalid");
+        }
+        return new LinearAxis(from, to, (int) steps);
+    }
+
+    private static HorizonAxis horizonAxis(Object spec, int fallback) {
+        if (!(spec instanceof Map<?, ?> range)) {
+            if (fallback < 1 || fallback > PortfolioKey.MAX_YEARS_TO_RETIREMENT) {
+                throw new ValidationException("error.grid.invalid");
+            }
+            return new HorizonAxis(fallback, fallback, 1);
+        }
+        double from = number(range.get("from"));
+        double to = number(range.get("to"));
+        double step = range.get("step") == null ? 1 : number(range.get("step"));
+        if (from < 1 || to < from || to > PortfolioKey.MAX_YEARS_TO_RETIREMENT || step < 1
+                || from != Math.rint(from) || to != Math.rint(to) || step != Math.rint(step)) {
+            throw new ValidationException("error.grid.invalid");
+        }
+        return new HorizonAxis((int) from, (int) to, (int) step);
+    }
+
+    private record LinearAxis(double from, double to, int steps) {
+        double[] values() {
+            double[] axis = new double[steps];
+            for (int i = 0; i < steps; i++) {
+                axis[i] = steps == 1 ? from : from + (to - from) * i / (steps - 1);
+            }
+            return axis;
+        }
+    }
+
+    private record HorizonAxis(int from, int to, int step) {
+        int length() {
+            return (to - from) / step + 1;
+        }
+
+        int[] values() {
+            int[] axis = new int[length()];
+            for (int i = 0; i < axis.length; i++) {
+                axis[i] = from + i * step;
+            }
+            return axis;
+        }
+    }
+
+    private static double number(Object value) {
+        if (value instanceof Number n && Double.isFinite(n.doubleValue())) {
+            return n.doubleValue();
+        }
+        throw new ValidationException("error.grid.invalid");
+    }
+}
@@ -0,0 +1,91 @@
+package com.fireproject.service;
+
+import com.fireproject.dto.FireResponse;
+import com.fireproject.dto.SimulationResult;
+import com.fireproject.engine.FireProjectionEngine;
+import com.fireproject.engine.MonteCarloSimulator;
+import com.fireproject.model.portfolio.PortfolioKey;
+import jakarta.validation.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+public class SimulationService {
+
+    private final FireService fireService;
+    private final PortfolioCanonicalizer canonicalizer;
+    private final MonteCarloSimulator simulator;
+    private final int defaultPaths;
+    private final int maxPaths;
+
+    public SimulationService(
+            FireService fireService,
+            PortfolioCanonicalizer canonicalizer,
+            MonteCarloSimulator simulator,
+            @Value("${fire.simulation.default-paths:10000}") int defaultPaths,
+            @Value("${fire.simulation.max-paths:100000}") int maxPaths) {
+        this.fireService = fireService;
+        this.canonicalizer = canonicalizer;
+        this.simulator = simulator;
+        this.defaultPaths = defaultPaths;
+        this.maxPaths = maxPaths;
+    }
+
+    public SimulationResult simulate(Map<String, Object> payload) {
+        PortfolioKey key = canonicalizer.canonicalize(payload);
+
+        int paths = payload.get("paths") instanceof Number n
+                ? (int) wholeNumber(n, Integer.MIN_VALUE, Integer.MAX_VALUE)
+                : defaultPaths;
+        if (paths < 1 || paths > maxPaths) {
+            throw new ValidationException("error.simulation.paths");
+        }
+        long seed = payload.get("seed") instanceof Number n
+                ? wholeNumber(n, Long.MIN_VALUE, Long.MAX_VALUE)
+                : ThreadLocalRandom.current().nextLong();
+
+        Double annualReturn = payload.get("annual_return") instanceof Number n ? n.doubleValue() : null;
+        Double annualVolatility = payload.get("annual_volatility") instanceof Number n ? n.doubleValue() : null;
+        if (annualReturn == null || annualVolatility == null) {
+            // Fall back to the motor's fit of this allocation (served from cache when warm)
+            FireResponse fitted = fireService.consultPythonMotor(payload);
+            annualReturn = annualReturn != null ? annualReturn : fitted.annualReturn();
+            annualVolatility = annualVolatility != null ? annualVolatility : fitted.annualVolatility();
+        }
+        if (annualReturn == null || annualVolatility == null) {
+            throw new ValidationException("error.simulation.model_unavailable");
+        }
+        // A return at or below -100% has no log-normal growth; the paths would all be NaN
+        if (!Double.isFinite(annualReturn) || annualReturn <= -1
+                || !Double.isFinite(annualVolatility) || annualVolatility < 0) {
+            throw new ValidationException("error.simulation.model_invalid");
+        }
+
+        return simulator.simulate(new MonteCarloSimulator.Scenario(
+                key.currentValue(),
+                key.monthlySavings(),
+                FireProjectionEngine.fireTarget(key.monthlyRetirementGoal()),
+                key.yearsToRetirement(),
+                FireProjectionEngine.cap(annualReturn),
+                annualVolatility,
+                paths,
+                seed));
+    }
+
+    // intValue()/longValue() would wrap 4294967297 to 1 and truncate 2.5; only exact whole numbers pass
+    private static long wholeNumber(Number number, long min, long max) {
+        try {
+            long value = new BigDecimal(number.toString()).longValueExact();
+            if (value >= min && value <= max) {
+                return value;
+            }
+        } catch (NumberFormatException | ArithmeticException ignored) {
+            // NaN, infinities, fractions and values beyond a long fall through to the error below
+        }
+        throw new ValidationException("error.portfolio.invalid");
+    }
+}
@@ -0,0 +1,35 @@
+package com.fireproject.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Mirror of the motor's ticker_mapping.json so the bridge resolves aliases
+ * (e.g. APPLE -> AAPL) exactly like main_api.py does before it downloads prices.
+ */
+@Component
+public class TickerMapping {
+
+    private final Map<String, String> aliases;
+
+    public TickerMapping(ObjectMapper objectMapper) {
+        try (InputStream in = new ClassPathResource("ticker_mapping.json").getInputStream()) {
+            this.aliases = Map.copyOf(objectMapper.readValue(in, new TypeReference<Map<String, String>>() {}));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ticker mapping could not be loaded", e);
+        }
+    }
+
+    public String normalize(String ticker) {
+        String clean = ticker.strip().toUpperCase(Locale.ROOT);
+        return aliases.getOrDefault(clean, clean);
+    }
+}
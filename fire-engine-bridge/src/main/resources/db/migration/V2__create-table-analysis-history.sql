@@ -0,0 +1,13 @@
+create table analysis_history(
+
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    created_at timestamp(3) not null,
+    request_json text not null,
+    response_json text not null,
+
+    primary key(id)
+
+);
+
+create index idx_analysis_history_user_created on analysis_history(user_id, created_at);
@@ -0,0 +1,124 @@
+package com.fireproject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fireproject.dto.FireResponse;
+import com.fireproject.dto.JobStatus;
+import com.fireproject.infra.errors.ServiceOverloadedException;
+import com.fireproject.service.AnalysisJobService;
+import com.fireproject.service.FireService;
+import com.fireproject.service.PortfolioCanonicalizer;
+import com.fireproject.service.TickerMapping;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+
+class AnalysisJobServiceTest {
+
+    private static final Duration RETENTION = Duration.ofMillis(300);
+
+    private final FireService fireService = Mockito.mock(FireService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AnalysisJobService service = new AnalysisJobService(
+            fireService,
+            new PortfolioCanonicalizer(new TickerMapping(new ObjectMapper())),
+            new StaticMessageSource(),
+            registry,
+            1, 100, 100, RETENTION, Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Shares cover the same window as their total and age out together")
+    @SuppressWarnings("unchecked")
+    void sharesUseOneWindow() throws Exception {
+        Mockito.when(fireService.consultPythonMotor(any())).thenReturn(new FireResponse(
+                8.0, 0.0, true, 700000.0, 120000.0, 600000.0, 700000.0, 15.0, 2500.0, 0.77));
+        service.start();
+
+        runAs("alice", 3);
+        runAs("bob", 1);
+
+        Map<String, Object> fairness = service.fairness();
+        Map<String, Double> shares = (Map<String, Double>) fairness.get("share_by_user");
+        assertEquals(4L, fairness.get("dispatched"));
+        assertEquals(0.75, shares.get("alice"), 1e-9);
+        assertEquals(1.0, shares.values().stream().mapToDouble(Double::doubleValue).sum(), 1e-9);
+        assertEquals(0.75, registry.get("fire.jobs.max_user_share").gauge().value(), 1e-9);
+
+        // Two full windows later nothing recent has been dispatched
+        Thread.sleep(2 * RETENTION.toMillis() + 50);
+        assertEquals(0L, service.fairness().get("dispatched"));
+        assertEquals(0.0, registry.get("fire.jobs.max_user_share").gauge().value());
+    }
+
+    @Test
+    @DisplayName("A job that throws an Error fails and its worker keeps serving the queue")
+    void workerSurvivesErrors() {
+        Mockito.when(fireService.consultPythonMotor(any()))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(new FireResponse(8.0, 0.0, true, 700000.0, 120000.0, 600000.0, 700000.0, 15.0, 2500.0, 0.77));
+        service.start();
+        authenticate("alice");
+
+        JobStatus failed = service.await(submit().jobId(), Duration.ofSeconds(5)).join();
+        assertEquals("failed", failed.status());
+        assertEquals("error.motor.unavailable", failed.error());
+
+        assertEquals("done", service.await(submit().jobId(), Duration.ofSeconds(5)).join().status());
+    }
+
+    @Test
+    @DisplayName("Jobs still queued at shutdown fail at once and new submissions are refused")
+    void shutdownFailsQueuedJobs() {
+        authenticate("alice");
+        JobStatus queued = submit();
+
+        service.shutdown();
+
+        JobStatus status = service.await(queued.jobId(), Duration.ofSeconds(5)).join();
+        assertEquals("failed", status.status());
+        assertEquals("error.jobs.shutdown", status.error());
+        assertThrows(ServiceOverloadedException.class, this::submit);
+        Mockito.verifyNoInteractions(fireService);
+    }
+
+    private static void authenticate(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user, "token", AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private JobStatus submit() {
+        return service.submit(Map.of(
+                "years_to_retirement", 15,
+                "current_value", 120000,
+                "monthly_retirement_goal", 2000,
+                "monthly_savings", 2500,
+                "allocations", Map.of("AAPL", 1)), Locale.ENGLISH);
+    }
+
+    private void runAs(String user, int jobs) {
+        authenticate(user);
+        for (int i = 0; i < jobs; i++) {
+            JobStatus submitted = submit();
+            JobStatus done = service.await(submitted.jobId(), Duration.ofSeconds(5)).join();
+            assertEquals("done", done.status());
+        }
+    }
+}
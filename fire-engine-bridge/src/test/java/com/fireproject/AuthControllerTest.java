@@ -1,10 +1,14 @@
 package com.fireproject;
 
+import com.fireproject.infra.errors.ServiceOverloadedException;
 import com.fireproject.model.user.User;
+import com.fireproject.model.user.UserRole;
 import com.fireproject.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -12,9 +16,21 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -28,7 +44,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         "spring.datasource.password=",
         "spring.flyway.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;MODE=MySQL",
         "spring.flyway.user=sa",
-        "spring.flyway.password="
+        "spring.flyway.password=",
+        "fire.market-data.ingest.enabled=false",
+        "fire.market-data.dir=${java.io.tmpdir}/fire-prices-test"
 })
 class AuthControllerTest {
 
@@ -38,9 +56,12 @@ class AuthControllerTest {
     @Autowired
     private UserRepository userRepository;
 
-    @Autowired
+    @MockitoSpyBean
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @BeforeEach
     void setup() {
         userRepository.deleteAll(); // Start fresh
@@ -66,4 +87,132 @@ class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token").exists());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should authenticate bearer requests from the token claims")
+    void bearerTokenAuthenticates() throws Exception {
+        String json = """
+                {
+                    "username": "root",
+                    "password": "123"
+                }
+                """;
+
+        String body = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(body).get("token").asText();
+
+        mockMvc.perform(get("/actuator/health")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/fire/history")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/fire/history")
+                        .header("Authorization", "Bearer " + token + "tampered"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Should keep operational actuator endpoints to admins")
+    void actuatorEndpointsRequireAdmin() throws Exception {
+        User admin = new User("operator", "operator@fire.com", passwordEncoder.encode("456"));
+        admin.setRole(UserRole.ADMIN);
+        userRepository.save(admin);
+
+        String userToken = login("root", "123");
+        String adminToken = login("operator", "456");
+
+        mockMvc.perform(delete("/actuator/analysiscache")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/analysisjobs")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(delete("/actuator/analysiscache")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/analysisjobs")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should keep bearer authentication across the async dispatch of a streamed response")
+    void bearerTokenSurvivesAsyncDispatch() throws Exception {
+        String json = """
+                {
+                    "username": "root",
+                    "password": "123"
+                }
+                """;
+
+        String body = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(body).get("token").asText();
+
+        // An invalid item is answered without calling the motor, so only the dispatch is exercised
+        var started = mockMvc.perform(post("/api/v1/fire/analyze/batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content("[{\"allocations\": {}}]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should name the field that conflicts, comparing usernames case-insensitively")
+    void registrationConflictMessages() throws Exception {
+        register("Bob", "bob@fire.com").andExpect(status().isOk());
+
+        register("bob", "bob@fire.com")
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Error: Username is already taken! Try another."));
+        register("robert", "bob@fire.com")
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Error: This email is already registered! Try another."));
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when the password hashing queue is full")
+    void registrationShedWhenHashingSaturated() throws Exception {
+        Mockito.doThrow(new ServiceOverloadedException("error.auth.overloaded", 1))
+                .when(passwordEncoder).encode(any());
+
+        register("newcomer", "newcomer@fire.com")
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(content().string("The authentication service is busy. Please try again shortly."));
+        assertNull(userRepository.findByUsername("newcomer"));
+    }
+
+    private ResultActions register(String username, String email) throws Exception {
+        return mockMvc.perform(post("/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Accept-Language", "en")
+                .content(objectMapper.writeValueAsString(
+                        Map.of("username", username, "email", email, "password", "long-enough-1"))));
+    }
+
+    private String login(String username, String password) throws Exception {
+        String body = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("username", username, "password", password))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+}
@@ -0,0 +1,72 @@
+package com.fireproject;
+
+import com.fireproject.infra.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    @Test
+    @DisplayName("Opens after consecutive failures, probes once when half-open and closes on success")
+    void opensProbesAndCloses() {
+        AtomicLong clock = new AtomicLong();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CircuitBreaker breaker = new CircuitBreaker("test", 3, Duration.ofSeconds(10), 1, registry, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "only one probe is admitted while half-open");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(1.0, registry.get("resilience.breaker.transitions").tag("to", "closed").counter().count());
+    }
+
+    @Test
+    @DisplayName("A failed probe re-opens the breaker for another full interval")
+    void failedProbeReopens() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, Duration.ofSeconds(5), 1, new SimpleMeterRegistry(), clock::get);
+
+        breaker.onFailure();
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Failures reported while already open do not extend the open interval")
+    void failuresWhileOpenKeepTheWindow() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, Duration.ofSeconds(5), 1, new SimpleMeterRegistry(), clock::get);
+
+        breaker.onFailure();
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        // A call admitted before the breaker opened fails late
+        breaker.onFailure();
+        assertEquals(1, breaker.retryAfterSeconds());
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    }
+}
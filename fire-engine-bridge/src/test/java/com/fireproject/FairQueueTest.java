@@ -0,0 +1,47 @@
+package com.fireproject;
+
+import com.fireproject.infra.concurrent.FairQueue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairQueueTest {
+
+    @Test
+    @DisplayName("Serves users round-robin regardless of how much each one queued")
+    void roundRobinAcrossKeys() throws Exception {
+        FairQueue<String, String> queue = new FairQueue<>(100, 100);
+        for (int i = 1; i <= 4; i++) {
+            queue.offer("heavy", "heavy-" + i);
+        }
+        queue.offer("light", "light-1");
+        queue.offer("other", "other-1");
+
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            order.add(queue.take());
+        }
+
+        assertEquals(List.of("heavy-1", "light-1", "other-1", "heavy-2", "heavy-3", "heavy-4"), order);
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Rejects offers beyond the total or per-user capacity")
+    void boundedPerKeyAndOverall() {
+        FairQueue<String, Integer> queue = new FairQueue<>(3, 2);
+
+        assertTrue(queue.offer("a", 1));
+        assertTrue(queue.offer("a", 2));
+        assertFalse(queue.offer("a", 3), "per-user share is full");
+        assertTrue(queue.offer("b", 1));
+        assertFalse(queue.offer("c", 1), "queue is full");
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.activeKeys());
+    }
+}
@@ -1,6 +1,10 @@
 package com.fireproject;
 
 import com.fireproject.dto.FireResponse;
+import com.fireproject.infra.cache.AnalysisCache;
+import com.fireproject.model.user.User;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -13,10 +17,21 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.SocketTimeoutException;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -30,13 +45,21 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         "spring.datasource.password=",
         "spring.flyway.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;MODE=MySQL",
         "spring.flyway.user=sa",
-        "spring.flyway.password="
+        "spring.flyway.password=",
+        "fire.market-data.ingest.enabled=false",
+        "fire.market-data.dir=${java.io.tmpdir}/fire-prices-test"
 })
 class FireControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private AnalysisCache analysisCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockitoBean
     private RestTemplate restTemplate;
 
@@ -70,12 +93,456 @@ class FireControllerTest {
             }
             """;
 
-        mockMvc.perform(post("/api/v1/fire/analyze")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(payload))
+        analyze(payload)
                 // THEN
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.reached").value(true))
                 .andExpect(jsonPath("$.years_to_reach_goal").value(5.0));
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should reject a malformed analysis request before it reaches the motor")
+    void rejectsInvalidRequestAtTheEdge() throws Exception {
+        String payload = """
+            {
+                "years_to_retirement": 12.5,
+                "current_value": 19000.0,
+                "monthly_retirement_goal": 3000,
+                "monthly_savings": 3000
+            }
+            """;
+
+        mockMvc.perform(post("/api/v1/fire/analyze")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[*].field", containsInAnyOrder("allocations", "wholeYears")));
+
+        String tooLong = """
+            {
+                "years_to_retirement": 100000000,
+                "current_value": 19000.0,
+                "monthly_retirement_goal": 3000,
+                "monthly_savings": 3000,
+                "allocations": {"AAPL": 1.0}
+            }
+            """;
+
+        mockMvc.perform(post("/api/v1/fire/analyze")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(tooLong))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[*].field", containsInAnyOrder("yearsToRetirement")));
+
+        Mockito.verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should reject a zero-year horizon on every endpoint instead of sending it to the motor")
+    void rejectsZeroYearsEverywhere() throws Exception {
+        String payload = """
+            {
+                "years_to_retirement": 0,
+                "current_value": 19000.0,
+                "monthly_retirement_goal": 3000,
+                "monthly_savings": 3000,
+                "allocations": {"AAPL": 1.0}
+            }
+            """;
+
+        mockMvc.perform(post("/api/v1/fire/analyze")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[*].field", containsInAnyOrder("yearsToRetirement")));
+
+        for (String path : new String[] {"/api/v1/fire/simulate", "/api/v1/fire/grid", "/api/v1/fire/jobs"}) {
+            mockMvc.perform(post(path)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(payload))
+                    .andExpect(status().isBadRequest());
+        }
+
+        mockMvc.perform(post("/api/v1/fire/analyze/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Accept-Language", "en")
+                        .content("[" + payload + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].error").exists())
+                .andExpect(jsonPath("$[0].result").doesNotExist());
+
+        Mockito.verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should answer equivalent portfolios from the cache with a single motor call")
+    void equivalentPortfoliosShareCacheEntry() throws Exception {
+        FireResponse mockResponse = new FireResponse(
+                12.0, 0.0, true, 950000.0, 50000.0,
+                900000.0, 950000.0, 20.0, 1500.0, 0.91
+        );
+
+        Mockito.when(restTemplate.postForObject(
+                anyString(),
+                any(),
+                eq(FireResponse.class))
+        ).thenReturn(mockResponse);
+
+        String first = """
+            {
+                "years_to_retirement": 20,
+                "current_value": 50000,
+                "monthly_retirement_goal": 3000,
+                "monthly_savings": 1500,
+                "allocations": { "apple": 3, "GOOGLE": 1 }
+            }
+            """;
+        String second = """
+            {
+                "years_to_retirement": 20,
+                "current_value": 50000.001,
+                "monthly_retirement_goal": 3000.0,
+                "monthly_savings": 1500,
+                "allocations": { " AAPL ": 0.75, "googl": 0.25 }
+            }
+            """;
+
+        analyze(first)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.years_to_reach_goal").value(12.0));
+
+        analyze(second)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.years_to_reach_goal").value(12.0));
+
+        Mockito.verify(restTemplate, Mockito.times(1))
+                .postForObject(anyString(), any(), eq(FireResponse.class));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should answer cash-flow what-ifs on a fitted allocation without calling the motor")
+    void cashFlowWhatIfsReuseTheFit() throws Exception {
+        FireResponse mockResponse = new FireResponse(
+                18.0, 0.0, true, 1200000.0, 60000.0,
+                900000.0, 1200000.0, 25.0, 1000.0, 0.77,
+                null, 0.05, 0.18, null
+        );
+
+        Mockito.when(restTemplate.postForObject(
+                anyString(),
+                any(),
+                eq(FireResponse.class))
+        ).thenReturn(mockResponse);
+
+        String fitted = """
+            {
+                "years_to_retirement": 25,
+                "current_value": 60000,
+                "monthly_retirement_goal": 3000,
+                "monthly_savings": 1000,
+                "allocations": { "NVDA": 2, "AMZN": 1 }
+            }
+            """;
+        String whatIf = """
+            {
+                "years_to_retirement": 15,
+                "current_value": 60000,
+                "monthly_retirement_goal": 4000,
+                "monthly_savings": 2500,
+                "allocations": { "NVDA": 0.6666667, "AMAZON": 0.3333333 }
+            }
+            """;
+
+        analyze(fitted).andExpect(status().isOk());
+
+        analyze(whatIf)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.years_simulated").value(15.0))
+                .andExpect(jsonPath("$.monthly_savings").value(2500.0))
+                .andExpect(jsonPath("$.fire_target").value(1200000.0))
+                .andExpect(jsonPath("$.annual_return").value(0.05))
+                .andExpect(jsonPath("$.annual_volatility").value(0.18))
+                .andExpect(jsonPath("$.confidence_score").value(0.77));
+
+        Mockito.verify(restTemplate, Mockito.times(1))
+                .postForObject(anyString(), any(), eq(FireResponse.class));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should return per-item results and errors for a batch in input order")
+    void analyzeBatchKeepsInputOrder() throws Exception {
+        FireResponse mockResponse = new FireResponse(
+                8.0, 0.0, true, 700000.0, 120000.0,
+                600000.0, 700000.0, 15.0, 2500.0, 0.77
+        );
+
+        Mockito.when(restTemplate.postForObject(
+                anyString(),
+                any(),
+                eq(FireResponse.class))
+        ).thenReturn(mockResponse);
+
+        String payload = """
+            [
+                {
+                    "years_to_retirement": 15,
+                    "current_value": 120000,
+                    "monthly_retirement_goal": 2000,
+                    "monthly_savings": 2500,
+                    "allocations": { "TSLA": 0.5, "AMZN": 0.5 }
+                },
+                {
+                    "years_to_retirement": 15,
+                    "current_value": 120000,
+                    "monthly_retirement_goal": 2000,
+                    "monthly_savings": 2500,
+                    "allocations": {}
+                },
+                null
+            ]
+            """;
+        String invalid = "The portfolio is invalid. Check the numeric fields and that allocations have a positive total weight.";
+
+        mockMvc.perform(post("/api/v1/fire/analyze/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Accept-Language", "en")
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].result.years_to_reach_goal").value(8.0))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").value(invalid))
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].error").value(invalid));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should stream one NDJSON line per batch item when asked for application/x-ndjson")
+    void streamBatchAsNdjson() throws Exception {
+        FireResponse mockResponse = new FireResponse(
+                9.0, 0.0, true, 800000.0, 60000.0,
+                750000.0, 800000.0, 18.0, 2200.0, 0.7
+        );
+
+        Mockito.when(restTemplate.postForObject(
+                anyString(),
+                any(),
+                eq(FireResponse.class))
+        ).thenReturn(mockResponse);
+
+        String payload = """
+            [
+                {
+                    "years_to_retirement": 18,
+                    "current_value": 60000,
+                    "monthly_retirement_goal": 2500,
+                    "monthly_savings": 2200,
+                    "allocations": { "GOOGL": 1 }
+                },
+                {
+                    "years_to_retirement": 18,
+                    "current_value": 60000,
+                    "monthly_retirement_goal": 2500,
+                    "monthly_savings": 2200,
+                    "allocations": { "AMZN": 1 }
+                }
+            ]
+            """;
+
+        var started = mockMvc.perform(post("/api/v1/fire/analyze/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(payload))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(2, body.lines().filter(line -> line.contains("\"result\"")).count());
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should serve the last good result flagged as stale when the motor fails")
+    void staleFallbackWhenMotorFails() throws Exception {
+        FireResponse mockResponse = new FireResponse(
+                14.0, 0.0, true, 500000.0, 40000.0,
+                450000.0, 500000.0, 22.0, 1200.0, 0.8
+        );
+
+        Mockito.when(restTemplate.postForObject(
+                anyString(),
+                any(),
+                eq(FireResponse.class))
+        ).thenReturn(mockResponse);
+
+        String payload = """
+            {
+                "years_to_retirement": 22,
+                "current_value": 40000,
+                "monthly_retirement_goal": 1500,
+                "monthly_savings": 1200,
+                "allocations": { "MSFT": 1 }
+            }
+            """;
+
+        analyze(payload)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stale").doesNotExist());
+
+        analysisCache.invalidateAll();
+        Mockito.when(restTemplate.postForObject(
+                anyString(),
+                any(),
+                eq(FireResponse.class))
+        ).thenThrow(new ResourceAccessException("connection refused"));
+
+        analyze(payload)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stale").value(true))
+                .andExpect(jsonPath("$.years_to_reach_goal").value(14.0));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should count a motor failure by type and time it as an unanswered analysis")
+    void motorFailuresAreCountedByType() throws Exception {
+        Mockito.when(restTemplate.postForObject(
+                anyString(),
+                any(),
+                eq(FireResponse.class))
+        ).thenThrow(new ResourceAccessException("Read timed out", new SocketTimeoutException("Read timed out")));
+        long unanswered = meterRegistry.get("fire.analyze").tag("source", "error").timer().count();
+
+        String payload = """
+            {
+                "years_to_retirement": 18,
+                "current_value": 25000,
+                "monthly_retirement_goal": 2500,
+                "monthly_savings": 900,
+                "allocations": { "NVDA": 1 }
+            }
+            """;
+
+        // With the blocking transport the failure surfaces before async processing starts
+        mockMvc.perform(post("/api/v1/fire/analyze")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(1.0, meterRegistry.get("fire.motor.errors").tag("type", "timeout").counter().count());
+        assertEquals(unanswered + 1, meterRegistry.get("fire.analyze").tag("source", "error").timer().count());
+        assertEquals(0.0, meterRegistry.get("fire.analyze.in_flight").gauge().value());
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should queue a job and return its result to a long-polling client")
+    void submitAndLongPollJob() throws Exception {
+        FireResponse mockResponse = new FireResponse(
+                6.0, 0.0, true, 300000.0, 150000.0,
+                280000.0, 300000.0, 10.0, 3000.0, 0.88
+        );
+
+        Mockito.when(restTemplate.postForObject(
+                anyString(),
+                any(),
+                eq(FireResponse.class))
+        ).thenReturn(mockResponse);
+
+        String payload = """
+            {
+                "years_to_retirement": 10,
+                "current_value": 150000,
+                "monthly_retirement_goal": 900,
+                "monthly_savings": 3000,
+                "allocations": { "NVDA": 1 }
+            }
+            """;
+
+        String body = mockMvc.perform(post("/api/v1/fire/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.job_id").exists())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = JsonPath.read(body, "$.job_id");
+
+        var started = mockMvc.perform(get("/api/v1/fire/jobs/" + jobId).param("wait", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("done"))
+                .andExpect(jsonPath("$.result.years_to_reach_goal").value(6.0));
+    }
+
+    @Test
+    @DisplayName("Should persist answered analyses behind the request and page them per user")
+    void historyIsWrittenBehindAndPaged() throws Exception {
+        FireResponse mockResponse = new FireResponse(
+                11.0, 0.0, true, 640000.0, 80000.0,
+                600000.0, 640000.0, 16.0, 1800.0, 0.82
+        );
+
+        Mockito.when(restTemplate.postForObject(
+                anyString(),
+                any(),
+                eq(FireResponse.class))
+        ).thenReturn(mockResponse);
+
+        User owner = new User("history-owner", "history@fire.com", "token");
+        owner.setId(4242L);
+
+        String payload = """
+            {
+                "years_to_retirement": 16,
+                "current_value": 80000,
+                "monthly_retirement_goal": 2000,
+                "monthly_savings": 1800,
+                "allocations": { "KO": 1 }
+            }
+            """;
+
+        var started = mockMvc.perform(post("/api/v1/fire/analyze")
+                        .with(user(owner))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        // The flusher runs on a one-second interval
+        long deadline = System.currentTimeMillis() + 5_000;
+        String body;
+        do {
+            Thread.sleep(100);
+            body = mockMvc.perform(get("/api/v1/fire/history").with(user(owner)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+        } while (JsonPath.<Integer>read(body, "$.total_elements") == 0 && System.currentTimeMillis() < deadline);
+
+        assertEquals(1, JsonPath.<Integer>read(body, "$.total_elements"));
+        assertEquals(11.0, JsonPath.<Double>read(body, "$.items[0].result.years_to_reach_goal"));
+        assertEquals(1.0, JsonPath.<Double>read(body, "$.items[0].request.allocations.KO"));
+    }
+
+    // /analyze answers through async request processing, so the result arrives on a second dispatch
+    private ResultActions analyze(String payload) throws Exception {
+        var started = mockMvc.perform(post("/api/v1/fire/analyze")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+}
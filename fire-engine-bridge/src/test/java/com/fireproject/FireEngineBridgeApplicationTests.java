@@ -14,7 +14,9 @@ import org.springframework.test.context.TestPropertySource;
 		"spring.datasource.password=",
 		"spring.flyway.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;MODE=MySQL",
 		"spring.flyway.user=sa",
-		"spring.flyway.password="
+		"spring.flyway.password=",
+		"fire.market-data.ingest.enabled=false",
+		"fire.market-data.dir=${java.io.tmpdir}/fire-prices-test"
 })
 class FireEngineBridgeApplicationTests {
 
@@ -0,0 +1,147 @@
+package com.fireproject;
+
+import com.fireproject.dto.FireResponse;
+import com.fireproject.engine.FireProjectionEngine;
+import com.fireproject.engine.SensitivityGridCalculator;
+import com.fireproject.model.portfolio.PortfolioKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Golden values produced by the motor's own time_to_FIRE / calculate_monthly_needed
+ * (fire-python-service/stocks_core) for the same inputs.
+ */
+class FireProjectionEngineTest {
+
+    private final FireProjectionEngine engine = new FireProjectionEngine();
+
+    @Test
+    @DisplayName("Target already covered in year one reports zero years (test_fire_already_reached)")
+    void fireAlreadyReached() {
+        double[] path = {1_000_000, 1_100_000};
+        FireResponse result = engine.evaluate(path, 2, 500_000, 1_000_000, 0, 0.5, 0.05);
+
+        assertTrue(result.reached());
+        assertEquals(0.0, result.yearsToReachGoal());
+        assertEquals(1_100_000.0, result.finalValue());
+    }
+
+    @Test
+    @DisplayName("Unreached target reports the gap to the peak (test_shortfall_calculation)")
+    void shortfallCalculation() {
+        double[] path = {100, 200, 300};
+        FireResponse result = engine.evaluate(path, 3, 1000, 0, 0, 0.5, 0.05);
+
+        assertFalse(result.reached());
+        assertEquals(3.0, result.yearsToReachGoal());
+        assertEquals(300.0, result.finalValue());
+        assertEquals(700.0, result.shortfall());
+    }
+
+    @Test
+    @DisplayName("Reached portfolio matches the motor's full response")
+    void reachedMatchesMotor() {
+        FireResponse result = engine.analyze(key(30, 19000, 3000, 3000), 0.07, 0.8123);
+
+        assertTrue(result.reached());
+        assertEquals(15.0, result.yearsToReachGoal());
+        assertEquals(0.0, result.shortfall());
+        assertEquals(3545221.15, result.finalValue());
+        assertEquals(3545221.15, result.finalEstimatedValue());
+        assertEquals(900000.0, result.fireTarget());
+        assertEquals(30.0, result.yearsSimulated());
+        assertNull(result.monthlyNeeded());
+    }
+
+    @Test
+    @DisplayName("Unreached portfolio matches the motor's shortfall and monthly_needed")
+    void unreachedMatchesMotor() {
+        FireResponse result = engine.analyze(key(10, 10000, 5000, 200), 0.05, 0.61);
+
+        assertFalse(result.reached());
+        assertEquals(10.0, result.yearsToReachGoal());
+        assertEquals(1453524.11, result.shortfall());
+        assertEquals(46475.89, result.finalValue());
+        assertEquals(46475.89, result.finalEstimatedValue());
+        assertEquals(1500000.0, result.fireTarget());
+        assertEquals(12112.7, result.monthlyNeeded());
+    }
+
+    @Test
+    @DisplayName("Shrinking portfolio reports the peak as final_value and the last year as final_estimated_value")
+    void negativeReturnMatchesMotor() {
+        FireResponse result = engine.analyze(key(25, 250000, 2000, 0), -0.02, 0.3);
+
+        assertFalse(result.reached());
+        assertEquals(25.0, result.yearsToReachGoal());
+        assertEquals(245000.0, result.finalValue());
+        assertEquals(150866.18, result.finalEstimatedValue());
+        assertEquals(449133.82, result.shortfall());
+        assertEquals(1497.11, result.monthlyNeeded());
+    }
+
+    @Test
+    @DisplayName("Fitted returns above the 7% CAGR cap are clamped like the motor does")
+    void capsAnnualReturn() {
+        FireResponse capped = engine.analyze(key(30, 19000, 3000, 3000), 0.12, 0.8123);
+
+        assertEquals(0.07, capped.annualReturn());
+        assertEquals(3545221.15, capped.finalEstimatedValue());
+        assertEquals(15.0, capped.yearsToReachGoal());
+    }
+
+    @Test
+    @DisplayName("Every grid cell agrees with a single analysis of the same inputs")
+    void gridCellsMatchSingleAnalyses() {
+        double[] savings = {0, 500, 1500, 3000};
+        int[] horizons = {5, 10, 20, 30};
+        double[] goals = {2000, 5000};
+
+        var grid = new SensitivityGridCalculator().compute(25_000, 0.055, savings, horizons, goals);
+
+        for (int g = 0; g < goals.length; g++) {
+            for (int s = 0; s < savings.length; s++) {
+                for (int h = 0; h < horizons.length; h++) {
+                    FireResponse single = engine.analyze(key(horizons[h], 25_000, goals[g], savings[s]), 0.055, 0.5);
+                    assertEquals(single.yearsToReachGoal(), grid.yearsToGoal()[g][s][h]);
+                    assertEquals(single.shortfall(), grid.shortfall()[g][s][h]);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("pyRound matches exact half-even rounding of the binary value")
+    void pyRoundIsExactHalfEven() {
+        // Ties that are exact in binary go to even; decimal-looking ties are decided by the binary value
+        assertEquals(0.12, FireProjectionEngine.pyRound(0.125, 2));
+        assertEquals(0.38, FireProjectionEngine.pyRound(0.375, 2));
+        assertEquals(2.67, FireProjectionEngine.pyRound(2.675, 2));
+        assertEquals(1.0, FireProjectionEngine.pyRound(1.005, 2));
+        assertEquals(-2.0, FireProjectionEngine.pyRound(-2.5, 0));
+        assertEquals(4.0, FireProjectionEngine.pyRound(3.5, 0));
+
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 200_000; i++) {
+            int digits = random.nextBoolean() ? 2 : 4;
+            double value = switch (i % 3) {
+                case 0 -> random.nextDouble(-1e7, 1e7);
+                case 1 -> Math.floor(random.nextDouble(-1e9, 1e9)) / 1000 + 0.005;
+                default -> random.nextDouble(-1, 1);
+            };
+            double expected = new BigDecimal(value).setScale(digits, RoundingMode.HALF_EVEN).doubleValue();
+            assertEquals(expected, FireProjectionEngine.pyRound(value, digits), () -> "round(" + value + ")");
+        }
+    }
+
+    private static PortfolioKey key(int years, double currentValue, double monthlyGoal, double monthlySavings) {
+        return new PortfolioKey(years, currentValue, monthlyGoal, monthlySavings, new TreeMap<>());
+    }
+}
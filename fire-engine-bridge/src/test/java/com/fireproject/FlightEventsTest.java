@@ -0,0 +1,153 @@
+package com.fireproject;
+
+import com.fireproject.dto.FireResponse;
+import com.fireproject.infra.http.MotorHttpMetrics;
+import com.fireproject.infra.jfr.FlightEvents;
+import com.fireproject.infra.security.BoundedPasswordEncoder;
+import com.fireproject.infra.security.ClaimsPrincipalResolver;
+import com.fireproject.infra.security.SecurityFilter;
+import com.fireproject.infra.security.TokenService;
+import com.fireproject.model.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class FlightEventsTest {
+
+    private static final String TOKEN_VERIFY = "com.fireproject.TokenVerify";
+    private static final String PRINCIPAL_LOOKUP = "com.fireproject.PrincipalLookup";
+    private static final String PASSWORD_HASH = "com.fireproject.PasswordHash";
+    private static final String MOTOR_CALL = "com.fireproject.MotorCall";
+    private static final List<String> NAMES = List.of(TOKEN_VERIFY, PRINCIPAL_LOOKUP, PASSWORD_HASH, MOTOR_CALL);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("A flight recording captures token, lookup, BCrypt and motor events with their fields")
+    void recordsBridgeEvents() throws Exception {
+        FlightEvents flightEvents = flightEvents(true);
+        List<RecordedEvent> recorded;
+        try {
+            recorded = record(FlightEventsTest::authenticateHashAndCallMotor);
+        } finally {
+            flightEvents.close();
+        }
+
+        Map<String, List<RecordedEvent>> events = recorded.stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        assertEquals(NAMES.size(), events.size(), events::toString);
+
+        // The async dispatch of the same request is not verified or timed again
+        assertEquals(1, events.get(TOKEN_VERIFY).size());
+        assertEquals(1, events.get(PRINCIPAL_LOOKUP).size());
+        assertTrue(events.get(TOKEN_VERIFY).get(0).getBoolean("valid"));
+        RecordedEvent lookup = events.get(PRINCIPAL_LOOKUP).get(0);
+        assertEquals("ClaimsPrincipalResolver", lookup.getString("resolver"));
+        assertTrue(lookup.getBoolean("found"));
+
+        List<String> hashes = events.get(PASSWORD_HASH).stream()
+                .map(event -> event.getString("operation") + ":" + event.getString("outcome"))
+                .toList();
+        assertEquals(List.of("encode:ok", "matches:ok"), hashes);
+
+        RecordedEvent motor = events.get(MOTOR_CALL).get(0);
+        assertEquals("/analyze", motor.getString("uri"));
+        assertEquals(200, motor.getInt("status"));
+        assertTrue(motor.getLong("requestBytes") > 0);
+        assertFalse(motor.getDuration().isNegative());
+    }
+
+    @Test
+    @DisplayName("With fire.jfr.enabled off the events never reach a recording")
+    void disabledEventsAreNotRecorded() throws Exception {
+        flightEvents(false);
+
+        assertEquals(List.of(), record(FlightEventsTest::authenticateHashAndCallMotor));
+    }
+
+    private static FlightEvents flightEvents(boolean enabled) {
+        return new FlightEvents(enabled, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+    }
+
+    private static void authenticateHashAndCallMotor() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        TokenService tokenService = new TokenService("jfr-secret-12345", 100);
+        User user = new User("pilot", "pilot@fire.com", "ignored");
+        user.setId(7L);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/fire/analyze");
+        request.addHeader("Authorization", "Bearer " + tokenService.generateToken(user));
+        SecurityFilter filter = new SecurityFilter(tokenService, new ClaimsPrincipalResolver(), registry);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        SecurityContextHolder.clearContext();
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertEquals("pilot", SecurityContextHolder.getContext().getAuthentication().getName());
+        assertEquals(1, registry.get("fire.security.stage").tag("stage", "token_verify").timer().count());
+        assertEquals(1, registry.get("fire.security.stage").tag("stage", "principal_lookup").timer().count());
+
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 4,
+                Duration.ofSeconds(5), registry);
+        try {
+            assertTrue(encoder.matches("secret", encoder.encode("secret")));
+        } finally {
+            encoder.shutdown();
+        }
+
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new MotorHttpMetrics(registry));
+        MockRestServiceServer motor = MockRestServiceServer.bindTo(restTemplate).build();
+        motor.expect(requestTo("http://motor/analyze"))
+                .andRespond(withSuccess("{\"years_to_reach_goal\": 12.0}", MediaType.APPLICATION_JSON));
+        restTemplate.postForObject("http://motor/analyze", Map.of("years_to_retirement", 20), FireResponse.class);
+        motor.verify();
+    }
+
+    private static List<RecordedEvent> record(Workload workload) throws Exception {
+        Path file = Files.createTempFile("fire-flight", ".jfr");
+        try (Recording recording = new Recording()) {
+            NAMES.forEach(name -> recording.enable(name).withoutThreshold());
+            recording.start();
+            workload.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> NAMES.contains(event.getEventType().getName()))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private interface Workload {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,155 @@
+package com.fireproject;
+
+import com.fireproject.engine.GrowthModel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrowthModelTest {
+
+    @Test
+    @DisplayName("Matches the motor's fit_growth_model on a fixed three-year series (test_growth_model_golden)")
+    void matchesMotorGoldenValues() {
+        // Golden values of fit_growth_model(pd.Series(returns), 250000); the motor's own test pins them
+        GrowthModel.Fit fit = new GrowthModel(goldenSeries()).fit(250_000);
+
+        assertEquals(0.065329938973613082, fit.annualReturn(), 1e-12);
+        assertEquals(0.9532, fit.confidenceScore());
+        assertEquals(0.065399129418082548, fit.regressionReturn(), 1e-12);
+        assertEquals(0.065329938973613082, fit.historicalReturn(), 1e-12);
+        assertEquals(0.99291171300359912, fit.inSampleR2(), 1e-9);
+        assertEquals(0.86040430429758091, fit.cvR2(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Matches a direct refit of every TimeSeriesSplit fold on 15 years of returns")
+    void matchesDirectRefit() {
+        double[] returns = randomWalk(3_900, 7);
+        GrowthModel.Fit fit = new GrowthModel(returns).fit(250_000);
+        double[] expected = reference(returns, 250_000);
+
+        assertEquals(expected[0], fit.inSampleR2(), 1e-9);
+        assertEquals(expected[1], fit.cvR2(), 1e-9);
+        assertEquals(expected[2], fit.regressionReturn(), 1e-12);
+        assertEquals(expected[3], fit.historicalReturn(), 1e-12);
+        assertEquals(Math.min(Math.min(expected[2], expected[3]), 0.07), fit.annualReturn(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Appending one day at a time gives the same fit as building from the whole series")
+    void incrementalAppendEqualsBatch() {
+        double[] returns = randomWalk(1_000, 11);
+        GrowthModel incremental = new GrowthModel(Arrays.copyOf(returns, 999));
+        incremental.append(returns[999]);
+
+        assertEquals(new GrowthModel(returns).fit(10_000), incremental.fit(10_000));
+    }
+
+    @Test
+    @DisplayName("Falls back to the clipped series when value times growth drops below one")
+    void clipsLikeTheMotor() {
+        double[] returns = new double[200];
+        Arrays.fill(returns, 0, 100, -0.01);
+        Arrays.fill(returns, 100, 200, 0.012);
+        GrowthModel.Fit fit = new GrowthModel(returns).fit(1.5);
+        double[] expected = reference(returns, 1.5);
+
+        assertEquals(expected[0], fit.inSampleR2(), 1e-9);
+        assertEquals(expected[1], fit.cvR2(), 1e-9);
+        assertEquals(expected[2], fit.regressionReturn(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("A steady 1% daily return is a perfect fit capped at 7%")
+    void steadyGrowthIsCapped() {
+        double[] returns = new double[100];
+        Arrays.fill(returns, 0.01);
+        GrowthModel.Fit fit = new GrowthModel(returns).fit(1000);
+
+        assertEquals(1.0, fit.confidenceScore());
+        assertEquals(0.07, fit.annualReturn());
+        assertEquals(0.0, fit.annualVolatility(), 1e-12);
+    }
+
+    // Same expression as golden_series() in fire-python-service/tests, so both sides fit identical doubles
+    private static double[] goldenSeries() {
+        double[] returns = new double[756];
+        for (int i = 0; i < returns.length; i++) {
+            returns[i] = ((i * 7919) % 2001 - 1000) / 400000.0 + 0.00025;
+        }
+        return returns;
+    }
+
+    private static double[] randomWalk(int days, long seed) {
+        Random random = new Random(seed);
+        double[] returns = new double[days];
+        for (int i = 0; i < days; i++) {
+            returns[i] = 0.0003 + 0.011 * random.nextGaussian();
+        }
+        return returns;
+    }
+
+    // fit_growth_model written out the way sklearn computes it: a two-pass OLS per fold
+    private static double[] reference(double[] returns, double currentValue) {
+        int n = returns.length;
+        double[] y = new double[n];
+        double cumulative = 1;
+        for (int i = 0; i < n; i++) {
+            cumulative *= 1 + returns[i];
+            y[i] = Math.log(Math.max(cumulative * Math.max(1.0, currentValue), 1.0));
+        }
+        double[] full = ols(y, 0, n);
+        double inSample = r2(y, 0, n, full);
+
+        int testSize = n / 4;
+        double cv = 0;
+        for (int start = n - 3 * testSize; start < n; start += testSize) {
+            cv += r2(y, start, start + testSize, ols(y, 0, start));
+        }
+        double mean = Arrays.stream(returns).average().orElseThrow();
+        return new double[] {inSample, cv / 3, Math.exp(full[1] * 252) - 1, Math.pow(1 + mean, 252) - 1};
+    }
+
+    private static double[] ols(double[] y, int from, int to) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = from; i < to; i++) {
+            meanX += i;
+            meanY += y[i];
+        }
+        meanX /= to - from;
+        meanY /= to - from;
+        double sxy = 0;
+        double sxx = 0;
+        for (int i = from; i < to; i++) {
+            sxy += (i - meanX) * (y[i] - meanY);
+            sxx += (i - meanX) * (i - meanX);
+        }
+        double slope = sxy / sxx;
+        return new double[] {meanY - slope * meanX, slope};
+    }
+
+    private static double r2(double[] y, int from, int to, double[] line) {
+        double meanY = 0;
+        for (int i = from; i < to; i++) {
+            meanY += y[i];
+        }
+        meanY /= to - from;
+        double ssRes = 0;
+        double ssTot = 0;
+        for (int i = from; i < to; i++) {
+            double residual = y[i] - (line[0] + line[1] * i);
+            ssRes += residual * residual;
+            ssTot += (y[i] - meanY) * (y[i] - meanY);
+        }
+        // sklearn's answer for a constant fold
+        if (ssTot == 0) {
+            return ssRes == 0 ? 1.0 : 0.0;
+        }
+        return 1 - ssRes / ssTot;
+    }
+}
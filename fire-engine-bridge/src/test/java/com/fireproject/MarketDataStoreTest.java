@@ -0,0 +1,162 @@
+package com.fireproject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fireproject.infra.marketdata.MarketDataStore;
+import com.fireproject.infra.marketdata.PriceColumnFile;
+import com.fireproject.infra.marketdata.PriceFeed;
+import com.fireproject.infra.marketdata.PriceRange;
+import com.fireproject.service.MarketDataService;
+import com.fireproject.service.TickerMapping;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataStoreTest {
+
+    private static final int START = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Appends only new days, grows past its capacity and survives a reopen")
+    void appendGrowAndReopen() {
+        PriceColumnFile file = PriceColumnFile.open(dir.resolve("AAPL.prices"));
+        assertEquals(300, file.append(days(0, 300), closes(0, 300)));
+        // Overlapping refresh: the first 10 days are already stored
+        assertEquals(10, file.append(days(290, 310), closes(290, 310)));
+
+        PriceColumnFile reopened = PriceColumnFile.open(dir.resolve("AAPL.prices"));
+        assertEquals(310, reopened.size());
+        assertEquals(START + 309, reopened.lastDate());
+        assertEquals(309.0, reopened.closeOn(START + 309));
+        assertTrue(Double.isNaN(reopened.closeOn(START - 1)));
+    }
+
+    @Test
+    @DisplayName("Range reads are bounded, inclusive views of the mapped columns")
+    void rangeIsAView() {
+        PriceColumnFile file = PriceColumnFile.open(dir.resolve("MSFT.prices"));
+        file.append(days(0, 100), closes(0, 100));
+
+        PriceRange range = file.range(START + 10, START + 19);
+        assertEquals(10, range.size());
+        assertEquals(LocalDate.of(2020, 1, 11), range.date(0));
+        assertEquals(19.0, range.close(9));
+        assertTrue(range.closes().isReadOnly());
+
+        assertTrue(file.range(START + 500, START + 600).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Ingests under the canonical ticker and refetches when adjusted closes change")
+    void refreshResolvesAliasesAndDetectsAdjustments() {
+        List<LocalDate> requests = new ArrayList<>();
+        double[] factor = {1.0};
+        PriceFeed feed = (ticker, from) -> {
+            requests.add(from);
+            int first = Math.max(0, (int) from.toEpochDay() - START);
+            int end = requests.size() == 1 ? 50 : 60;
+            double[] closes = closes(first, end);
+            for (int i = 0; i < closes.length; i++) {
+                closes[i] *= factor[0];
+            }
+            return new PriceFeed.DailyCloses(days(first, end), closes);
+        };
+        MarketDataStore store = new MarketDataStore(dir, new SimpleMeterRegistry());
+        MarketDataService service = new MarketDataService(store, feed, new TickerMapping(new ObjectMapper()),
+                new SimpleMeterRegistry(), true, LocalDate.of(2020, 1, 1), 10);
+
+        assertEquals(50, service.refresh("AAPL"));
+        assertEquals(List.of("AAPL"), store.tickers());
+        assertEquals(50, service.history("apple", LocalDate.of(2019, 1, 1), LocalDate.of(2021, 1, 1)).orElseThrow().size());
+
+        // Incremental: only the days after the last stored close are added
+        assertEquals(10, service.refresh("AAPL"));
+        assertEquals(LocalDate.ofEpochDay(START + 49), requests.get(1));
+
+        // A dividend re-adjusts history: the overlap no longer matches and the full range is reloaded
+        factor[0] = 0.98;
+        assertEquals(60, service.refresh("AAPL"));
+        assertEquals(LocalDate.of(2020, 1, 1), requests.get(3));
+        assertEquals(59 * 0.98, store.find("AAPL").orElseThrow().closeOn(START + 59), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Stops tracking new tickers once the store holds its limit")
+    void trackingIsCapped() throws InterruptedException {
+        List<String> fetched = new CopyOnWriteArrayList<>();
+        PriceFeed feed = (ticker, from) -> {
+            fetched.add(ticker);
+            return new PriceFeed.DailyCloses(days(0, 5), closes(0, 5));
+        };
+        MarketDataStore store = new MarketDataStore(dir, new SimpleMeterRegistry());
+        MarketDataService service = new MarketDataService(store, feed, new TickerMapping(new ObjectMapper()),
+                new SimpleMeterRegistry(), true, LocalDate.of(2020, 1, 1), 1);
+        try {
+            service.track(List.of("AAPL", "MSFT"));
+            for (int i = 0; i < 100 && store.tickers().isEmpty(); i++) {
+                Thread.sleep(20);
+            }
+            service.track(List.of("NVDA"));
+
+            assertEquals(List.of("AAPL"), store.tickers());
+            assertEquals(List.of("AAPL"), fetched);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("The scheduled refresh runs on the ingest thread, not on the scheduler's")
+    void refreshAllDoesNotBlockTheScheduler() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        PriceFeed feed = (ticker, from) -> {
+            threads.add(Thread.currentThread().getName());
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new PriceFeed.DailyCloses(days(0, 5), closes(0, 5));
+        };
+        MarketDataStore store = new MarketDataStore(dir, new SimpleMeterRegistry());
+        store.series("AAPL").append(days(0, 1), closes(0, 1));
+        MarketDataService service = new MarketDataService(store, feed, new TickerMapping(new ObjectMapper()),
+                new SimpleMeterRegistry(), true, LocalDate.of(2020, 1, 1), 10);
+        try {
+            long startedAt = System.nanoTime();
+            service.refreshAll();
+            assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(1));
+
+            for (int i = 0; i < 100 && threads.isEmpty(); i++) {
+                Thread.sleep(20);
+            }
+            assertEquals(List.of("fire-market-data"), threads);
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+
+    private static int[] days(int from, int to) {
+        return IntStream.range(from, to).map(i -> START + i).toArray();
+    }
+
+    private static double[] closes(int from, int to) {
+        return IntStream.range(from, to).asDoubleStream().toArray();
+    }
+}
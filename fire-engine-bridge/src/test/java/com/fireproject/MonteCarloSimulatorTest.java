@@ -0,0 +1,57 @@
+package com.fireproject;
+
+import com.fireproject.dto.SimulationResult;
+import com.fireproject.engine.FireProjectionEngine;
+import com.fireproject.engine.MonteCarloSimulator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloSimulatorTest {
+
+    @Test
+    @DisplayName("Same seed gives identical results regardless of pool size")
+    void reproducibleAcrossParallelism() {
+        var scenario = new MonteCarloSimulator.Scenario(
+                50_000, 1_500, FireProjectionEngine.fireTarget(3_000), 25, 0.06, 0.18, 20_000, 42L);
+
+        MonteCarloSimulator single = new MonteCarloSimulator(1);
+        MonteCarloSimulator parallel = new MonteCarloSimulator(4);
+        try {
+            SimulationResult a = single.simulate(scenario);
+            SimulationResult b = parallel.simulate(scenario);
+
+            assertEquals(a.successProbability(), b.successProbability());
+            assertArrayEquals(a.finalValueBands(), b.finalValueBands());
+            assertArrayEquals(a.reachedByYear(), b.reachedByYear());
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Zero volatility collapses every path onto the deterministic projection")
+    void zeroVolatilityMatchesDeterministicPath() {
+        int years = 20;
+        double target = FireProjectionEngine.fireTarget(2_500);
+        var scenario = new MonteCarloSimulator.Scenario(30_000, 2_000, target, years, 0.05, 0.0, 5_000, 7L);
+
+        double[] path = new double[years];
+        FireProjectionEngine.project(30_000, 2_000, 0.05, years, path);
+        int expectedYears = FireProjectionEngine.yearsToReach(path, years, target);
+
+        MonteCarloSimulator simulator = new MonteCarloSimulator(2);
+        try {
+            SimulationResult result = simulator.simulate(scenario);
+
+            assertEquals(expectedYears >= 0 ? 1.0 : 0.0, result.successProbability());
+            for (double band : result.finalValueBands()) {
+                assertEquals(path[years - 1], band, path[years - 1] * 1e-9);
+            }
+        } finally {
+            simulator.shutdown();
+        }
+    }
+}
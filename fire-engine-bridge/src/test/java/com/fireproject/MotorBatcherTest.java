@@ -0,0 +1,141 @@
+package com.fireproject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fireproject.dto.FireResponse;
+import com.fireproject.infra.http.MotorEndpointPool;
+import com.fireproject.model.portfolio.PortfolioKey;
+import com.fireproject.service.MotorBatcher;
+import com.fireproject.service.MotorClient;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorBatcherTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private HttpServer server;
+    private CloseableHttpAsyncClient asyncClient;
+    private final List<String> paths = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void start() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // Answers each portfolio with its own horizon; a portfolio holding BAD fails on its own
+        server.createContext("/analyze", exchange -> {
+            paths.add(exchange.getRequestURI().getPath());
+            boolean batch = exchange.getRequestURI().getPath().endsWith("/batch");
+            List<Map<String, Object>> portfolios = batch
+                    ? JSON.readValue(exchange.getRequestBody(), List.class)
+                    : List.of(JSON.readValue(exchange.getRequestBody(), Map.class));
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (Map<String, Object> portfolio : portfolios) {
+                items.add(((Map<?, ?>) portfolio.get("allocations")).containsKey("BAD")
+                        ? Map.of("status", 400, "detail", "No data returned for ['BAD']")
+                        : Map.of("result", Map.of("years_to_reach_goal", portfolio.get("years_to_retirement"))));
+            }
+            byte[] body = JSON.writeValueAsBytes(batch ? items : items.get(0).get("result"));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        asyncClient = HttpAsyncClients.createDefault();
+        asyncClient.start();
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        asyncClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Requests within one window share a motor call and each gets its own item back")
+    void batchesConcurrentRequests() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MotorBatcher batcher = batcher(registry, Duration.ofMillis(200));
+
+        CompletableFuture<FireResponse> first = batcher.analyzeAsync(key(10, "AAPL"), "abc");
+        CompletableFuture<FireResponse> second = batcher.analyzeAsync(key(20, "MSFT"), "def");
+        CompletableFuture<FireResponse> failing = batcher.analyzeAsync(key(30, "BAD"), "ghi");
+
+        assertEquals(10.0, first.join().yearsToReachGoal());
+        assertEquals(20.0, second.join().yearsToReachGoal());
+        CompletionException e = assertThrows(CompletionException.class, failing::join);
+        assertInstanceOf(HttpClientErrorException.BadRequest.class, e.getCause());
+
+        assertEquals(List.of("/analyze/batch"), paths);
+        assertEquals(1, registry.get("fire.motor.batch.size").summary().count());
+        assertEquals(3.0, registry.get("fire.motor.batch.size").summary().totalAmount());
+        assertEquals(3, registry.get("fire.motor.batch.queue_wait").timer().count());
+        batcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("A request alone in its window goes to the single-portfolio endpoint")
+    void loneRequestIsNotBatched() throws Exception {
+        MotorBatcher batcher = batcher(new SimpleMeterRegistry(), Duration.ofMillis(5));
+
+        assertEquals(15.0, batcher.analyzeAsync(key(15, "AAPL"), "abc").join().yearsToReachGoal());
+        assertEquals(List.of("/analyze"), paths);
+        batcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Requests after shutdown fail at once and a blocking caller never waits past the read timeout")
+    void neverLeavesACallerWaiting() throws Exception {
+        MotorBatcher batcher = batcher(new SimpleMeterRegistry(), Duration.ofMillis(5));
+        batcher.shutdown();
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> batcher.analyzeAsync(key(10, "AAPL"), "abc").join());
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+
+        // No collector drains this one, as if it had stopped between the caller's check and enqueue
+        MotorBatcher idle = unstarted(new SimpleMeterRegistry(), Duration.ofMillis(5), Duration.ofMillis(100));
+        assertThrows(ResourceAccessException.class, () -> idle.analyze(key(10, "AAPL"), "abc"));
+        assertTrue(paths.isEmpty());
+    }
+
+    private MotorBatcher batcher(SimpleMeterRegistry registry, Duration window) {
+        MotorBatcher batcher = unstarted(registry, window, Duration.ofSeconds(2));
+        batcher.start();
+        return batcher;
+    }
+
+    private MotorBatcher unstarted(SimpleMeterRegistry registry, Duration window, Duration readTimeout) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/analyze";
+        MotorEndpointPool pool = new MotorEndpointPool(List.of(url), Duration.ofSeconds(1), 1, 1, registry);
+        MotorClient client = new MotorClient(new RestTemplate(), Optional.of(asyncClient), JSON, pool,
+                new SimpleAsyncTaskExecutorBuilder(), registry, false, Duration.ofSeconds(2), "json");
+        return new MotorBatcher(client, new SimpleAsyncTaskExecutorBuilder(), registry, true, window, 16, readTimeout);
+    }
+
+    private static PortfolioKey key(int years, String ticker) {
+        return new PortfolioKey(years, 50_000, 3_000, 1_500, new TreeMap<>(Map.of(ticker, 1.0)));
+    }
+}
@@ -0,0 +1,160 @@
+package com.fireproject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fireproject.dto.FireResponse;
+import com.fireproject.infra.http.MotorEndpointPool;
+import com.fireproject.infra.http.MotorHttpMetrics;
+import com.fireproject.model.portfolio.PortfolioKey;
+import com.fireproject.service.MotorClient;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorClientAsyncTest {
+
+    private static final CBORMapper CBOR = new CBORMapper();
+    private static final PortfolioKey KEY = new PortfolioKey(20, 50_000, 3_000, 1_500,
+            new TreeMap<>(Map.of("AAPL", 1.0)));
+
+    private HttpServer server;
+    private CloseableHttpAsyncClient asyncClient;
+    private final AtomicReference<String> authorization = new AtomicReference<>();
+    private final List<String> contentTypes = new CopyOnWriteArrayList<>();
+    private final List<MotorEndpointPool> pools = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void start() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/analyze", exchange -> {
+            authorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            byte[] body = exchange.getRequestURI().getQuery() == null
+                    ? "{\"years_to_reach_goal\": 12.0, \"reached\": true}".getBytes(StandardCharsets.UTF_8)
+                    : "{\"detail\": \"bad ticker\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(exchange.getRequestURI().getQuery() == null ? 200 : 400, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/cbor", exchange -> {
+            contentTypes.add(exchange.getRequestHeaders().getFirst("Content-Type"));
+            Map<?, ?> request = CBOR.readValue(exchange.getRequestBody(), Map.class);
+            byte[] body = CBOR.writeValueAsBytes(Map.of("years_to_reach_goal", request.get("years_to_retirement")));
+            exchange.getResponseHeaders().add("Content-Type", "application/cbor");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        // A motor that predates CBOR: FastAPI answers 422 to a body it cannot read as JSON
+        server.createContext("/legacy", exchange -> {
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            contentTypes.add(contentType);
+            boolean json = contentType.startsWith("application/json");
+            byte[] body = (json ? "{\"years_to_reach_goal\": 9.0}" : "{\"detail\": \"JSON decode error\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(json ? 200 : 422, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        asyncClient = HttpAsyncClients.createDefault();
+        asyncClient.start();
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        pools.forEach(MotorEndpointPool::close);
+        asyncClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Non-blocking transport forwards the bearer token and parses the motor's answer")
+    void analyzesWithoutBlocking() {
+        FireResponse response = client("/analyze").analyzeAsync(KEY, "abc").join();
+
+        assertEquals(12.0, response.yearsToReachGoal());
+        assertEquals("Bearer abc", authorization.get());
+    }
+
+    @Test
+    @DisplayName("A 4xx from the motor surfaces as a client error, like the blocking transport")
+    void clientErrorsKeepTheirType() {
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> client("/analyze?reject").analyzeAsync(KEY, "abc").join());
+
+        assertInstanceOf(HttpClientErrorException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Sends the typed request as CBOR and decodes a CBOR answer")
+    void speaksCbor() {
+        FireResponse response = client("/cbor").analyzeAsync(KEY, "abc").join();
+
+        assertEquals(20.0, response.yearsToReachGoal());
+        assertEquals(List.of("application/cbor"), contentTypes);
+    }
+
+    @Test
+    @DisplayName("A replica that rejects CBOR is retried in JSON and then only sent JSON")
+    void fallsBackToJson() {
+        MotorClient client = client("/legacy");
+
+        assertEquals(9.0, client.analyzeAsync(KEY, "abc").join().yearsToReachGoal());
+        assertEquals(9.0, client.analyzeAsync(KEY, "abc").join().yearsToReachGoal());
+        assertEquals(3, contentTypes.size());
+        assertEquals("application/cbor", contentTypes.get(0));
+        assertTrue(contentTypes.get(2).startsWith("application/json"));
+    }
+
+    @Test
+    @DisplayName("Motor calls on either transport are timed by path and outcome")
+    void recordsMotorLatencyByOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new MotorHttpMetrics(registry));
+
+        MotorClient client = client("/analyze", registry, restTemplate);
+        client.analyze(KEY, "abc");
+        client.analyzeAsync(KEY, "abc").join();
+        assertThrows(HttpClientErrorException.class,
+                () -> client("/analyze?reject", registry, restTemplate).analyze(KEY, "abc"));
+
+        assertEquals(2, registry.get("fire.motor.http").tags("uri", "/analyze", "outcome", "SUCCESS").timer().count());
+        assertEquals(1, registry.get("fire.motor.http").tags("status", "400", "outcome", "CLIENT_ERROR").timer().count());
+    }
+
+    private MotorClient client(String path) {
+        return client(path, new SimpleMeterRegistry(), new RestTemplate());
+    }
+
+    private MotorClient client(String path, SimpleMeterRegistry registry, RestTemplate restTemplate) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + path;
+        MotorEndpointPool pool = new MotorEndpointPool(List.of(url), Duration.ofSeconds(1), 1, 1, registry);
+        pools.add(pool);
+        return new MotorClient(restTemplate, Optional.of(asyncClient), new ObjectMapper(), pool,
+                new SimpleAsyncTaskExecutorBuilder(), registry, false, Duration.ofSeconds(2), "cbor");
+    }
+}
@@ -0,0 +1,62 @@
+package com.fireproject;
+
+import com.fireproject.infra.http.MotorEndpoint;
+import com.fireproject.infra.http.MotorEndpointPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorEndpointPoolTest {
+
+    private static final List<String> URLS = List.of(
+            "http://127.0.0.1:1/analyze", "http://127.0.0.1:2/analyze");
+
+    @Test
+    @DisplayName("Routes to the endpoint with the fewest outstanding calls")
+    void picksLeastOutstanding() {
+        MotorEndpointPool pool = new MotorEndpointPool(URLS, Duration.ofMillis(200), 1, 1, new SimpleMeterRegistry());
+
+        MotorEndpoint busy = pool.select(null);
+        long startedAt = busy.begin();
+        for (int i = 0; i < 10; i++) {
+            assertNotSame(busy, pool.select(null));
+        }
+        busy.end(startedAt);
+    }
+
+    @Test
+    @DisplayName("Ejects endpoints that fail health checks but never leaves the pool empty")
+    void ejectsUnhealthyAndFailsOpen() {
+        MotorEndpointPool pool = new MotorEndpointPool(URLS, Duration.ofMillis(200), 1, 1, new SimpleMeterRegistry());
+
+        pool.checkHealth();
+
+        MotorEndpoint selected = pool.select(null);
+        assertNotNull(selected);
+        assertFalse(selected.isHealthy());
+        assertNotSame(selected, pool.select(selected));
+    }
+
+    @Test
+    @DisplayName("A closed pool hands its endpoint gauges over to the next pool for the same URLs")
+    void closeReleasesEndpointMeters() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        MotorEndpointPool first = new MotorEndpointPool(URLS, Duration.ofMillis(200), 1, 1, registry);
+        first.close();
+        assertTrue(registry.find("fire.motor.endpoint.in_flight").gauges().isEmpty());
+
+        MotorEndpointPool second = new MotorEndpointPool(URLS, Duration.ofMillis(200), 1, 1, registry);
+        MotorEndpoint endpoint = second.select(null);
+        long startedAt = endpoint.begin();
+        assertEquals(1.0, registry.get("fire.motor.endpoint.in_flight")
+                .tag("endpoint", endpoint.analyzeUrl()).gauge().value());
+        endpoint.end(startedAt);
+        second.close();
+    }
+}
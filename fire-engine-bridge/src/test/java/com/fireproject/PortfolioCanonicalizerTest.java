@@ -0,0 +1,53 @@
+package com.fireproject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fireproject.service.PortfolioCanonicalizer;
+import com.fireproject.service.TickerMapping;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioCanonicalizerTest {
+
+    private final PortfolioCanonicalizer canonicalizer = new PortfolioCanonicalizer(new TickerMapping(new ObjectMapper()));
+
+    @Test
+    @DisplayName("Accepts numbers sent as strings")
+    void parsesNumericStrings() {
+        var key = canonicalizer.canonicalize(payload("current_value", " 1234.567 "));
+
+        assertEquals(1234.57, key.currentValue());
+    }
+
+    @Test
+    @DisplayName("Rejects non-finite strings and values too large to round to a key")
+    void rejectsUnrepresentableNumbers() {
+        assertRejected(payload("current_value", "NaN"));
+        assertRejected(payload("current_value", "Infinity"));
+        assertRejected(payload("monthly_savings", "-Infinity"));
+        assertRejected(payload("monthly_retirement_goal", 1e300));
+        assertRejected(payload("allocations", Map.of("AAPL", "NaN")));
+        assertRejected(payload("allocations", Map.of("AAPL", Double.MAX_VALUE, "MSFT", Double.MAX_VALUE)));
+    }
+
+    private void assertRejected(Map<String, Object> payload) {
+        var error = assertThrows(ValidationException.class, () -> canonicalizer.canonicalize(payload));
+        assertEquals("error.portfolio.invalid", error.getMessage());
+    }
+
+    private static Map<String, Object> payload(String field, Object value) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("years_to_retirement", 20);
+        payload.put("current_value", 10_000);
+        payload.put("monthly_retirement_goal", 2_000);
+        payload.put("monthly_savings", 1_000);
+        payload.put("allocations", Map.of("AAPL", 1));
+        payload.put(field, value);
+        return payload;
+    }
+}
@@ -0,0 +1,100 @@
+package com.fireproject;
+
+import com.fireproject.infra.ratelimit.RateLimiter;
+import com.fireproject.infra.security.ClaimsPrincipalResolver;
+import com.fireproject.infra.security.TokenService;
+import com.fireproject.model.user.User;
+import com.fireproject.model.user.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final RateLimiter limiter = new RateLimiter(true,
+            Map.of("ROLE_USER", new RateLimiter.Limit(60, 3), "ROLE_ADMIN", new RateLimiter.Limit(600, 10)),
+            new RateLimiter.Limit(100_000, 10_000), 1, new SimpleMeterRegistry(), clock::get);
+
+    @Test
+    @DisplayName("Allows the burst, then rejects with the time until the next token")
+    void burstThenRetryAfter() {
+        var user = auth("alice", "ROLE_USER");
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.check(user).allowed());
+        }
+        RateLimiter.Decision rejected = limiter.check(user);
+        assertFalse(rejected.allowed());
+        assertEquals("user", rejected.scope());
+        assertEquals(Duration.ofSeconds(1).toNanos(), rejected.retryAfterNanos());
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(limiter.check(user).allowed());
+    }
+
+    @Test
+    @DisplayName("Users have independent budgets and the most generous role wins")
+    void perUserAndPerRole() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check(auth("alice", "ROLE_USER"));
+        }
+        assertFalse(limiter.check(auth("alice", "ROLE_USER")).allowed());
+        assertTrue(limiter.check(auth("bob", "ROLE_USER")).allowed());
+
+        var admin = auth("root", "ROLE_USER", "ROLE_ADMIN");
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.check(admin).allowed());
+        }
+        assertFalse(limiter.check(admin).allowed());
+    }
+
+    @Test
+    @DisplayName("An admin's token resolves to the admin limit")
+    void adminRoleFromTokenApplies() {
+        TokenService tokens = new TokenService("test-secret", 10);
+        User operator = new User("operator", "operator@fire.com", "ignored");
+        operator.setId(9L);
+        operator.setRole(UserRole.ADMIN);
+        String token = tokens.generateToken(operator);
+
+        User principal = new ClaimsPrincipalResolver().resolve(tokens.verify(token));
+        var authentication = new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.check(authentication).allowed());
+        }
+        assertFalse(limiter.check(authentication).allowed());
+    }
+
+    @Test
+    @DisplayName("A request the global budget turns down does not use up the caller's own")
+    void globalRejectionRefundsTheUser() {
+        RateLimiter tightGlobal = new RateLimiter(true, Map.of("ROLE_USER", new RateLimiter.Limit(60, 3)),
+                new RateLimiter.Limit(60, 1), 1, new SimpleMeterRegistry(), clock::get);
+        var user = auth("alice", "ROLE_USER");
+
+        assertTrue(tightGlobal.check(user).allowed());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("global", tightGlobal.check(user).scope());
+        }
+
+        // Alice has only spent one of her three tokens; each second the global stripe admits one more
+        for (int i = 0; i < 2; i++) {
+            clock.addAndGet(Duration.ofSeconds(1).toNanos());
+            assertTrue(tightGlobal.check(user).allowed());
+        }
+    }
+
+    private static UsernamePasswordAuthenticationToken auth(String name, String... roles) {
+        return new UsernamePasswordAuthenticationToken(name, null, AuthorityUtils.createAuthorityList(roles));
+    }
+}
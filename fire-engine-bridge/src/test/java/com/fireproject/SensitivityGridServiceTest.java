@@ -0,0 +1,67 @@
+package com.fireproject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fireproject.dto.SensitivityGridResult;
+import com.fireproject.engine.SensitivityGridCalculator;
+import com.fireproject.service.FireService;
+import com.fireproject.service.PortfolioCanonicalizer;
+import com.fireproject.service.SensitivityGridService;
+import com.fireproject.service.TickerMapping;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SensitivityGridServiceTest {
+
+    private final FireService fireService = Mockito.mock(FireService.class);
+    private final SensitivityGridService service = new SensitivityGridService(
+            fireService,
+            new PortfolioCanonicalizer(new TickerMapping(new ObjectMapper())),
+            new SensitivityGridCalculator(),
+            1_000);
+
+    @Test
+    @DisplayName("Evaluates a grid within the cell budget")
+    void evaluatesGrid() {
+        SensitivityGridResult result = service.evaluate(payload(Map.of(
+                "monthly_savings", Map.of("from", 500, "to", 1_500, "steps", 3),
+                "years_to_retirement", Map.of("from", 10, "to", 30, "step", 10))));
+
+        assertEquals(3, result.monthlySavings().length);
+        assertArrayEquals(new int[]{10, 20, 30}, result.yearsToRetirement());
+        Mockito.verifyNoInteractions(fireService);
+    }
+
+    @Test
+    @DisplayName("Rejects oversized axes before allocating them")
+    void rejectsOversizedAxes() {
+        var hugeSteps = payload(Map.of("monthly_savings", Map.of("from", 0, "to", 1, "steps", 2_000_000_000)));
+        var hugeHorizon = payload(Map.of("years_to_retirement", Map.of("from", 1, "to", 2e9, "step", 1_999_999_999)));
+        var tooManyCells = payload(Map.of(
+                "monthly_savings", Map.of("from", 0, "to", 1, "steps", 100),
+                "monthly_retirement_goal", Map.of("from", 0, "to", 1, "steps", 100)));
+
+        assertThrows(ValidationException.class, () -> service.evaluate(hugeSteps));
+        assertThrows(ValidationException.class, () -> service.evaluate(hugeHorizon));
+        assertThrows(ValidationException.class, () -> service.evaluate(tooManyCells));
+        Mockito.verifyNoInteractions(fireService);
+    }
+
+    private static Map<String, Object> payload(Map<String, Object> grid) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("years_to_retirement", 20);
+        payload.put("current_value", 10_000);
+        payload.put("monthly_retirement_goal", 2_000);
+        payload.put("monthly_savings", 1_000);
+        payload.put("allocations", Map.of("AAPL", 1));
+        payload.put("annual_return", 0.06);
+        payload.put("grid", grid);
+        return payload;
+    }
+}
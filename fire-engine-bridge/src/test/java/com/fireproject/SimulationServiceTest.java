@@ -0,0 +1,99 @@
+package com.fireproject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fireproject.engine.MonteCarloSimulator;
+import com.fireproject.service.FireService;
+import com.fireproject.service.PortfolioCanonicalizer;
+import com.fireproject.service.SimulationService;
+import com.fireproject.service.TickerMapping;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationServiceTest {
+
+    private final FireService fireService = Mockito.mock(FireService.class);
+    private final MonteCarloSimulator simulator = new MonteCarloSimulator(1);
+    private final SimulationService service = new SimulationService(
+            fireService,
+            new PortfolioCanonicalizer(new TickerMapping(new ObjectMapper())),
+            simulator,
+            1_000,
+            10_000);
+
+    @AfterEach
+    void tearDown() {
+        simulator.shutdown();
+    }
+
+    @Test
+    @DisplayName("Rejects returns at or below -100% and non-finite model inputs")
+    void rejectsUnusableModel() {
+        assertRejected(-1.0, 0.2);
+        assertRejected(-3.0, 0.2);
+        assertRejected(Double.NaN, 0.2);
+        assertRejected(0.05, Double.POSITIVE_INFINITY);
+        assertRejected(0.05, -0.1);
+        Mockito.verifyNoInteractions(fireService);
+    }
+
+    @Test
+    @DisplayName("Simulates a caller-supplied model without asking the motor")
+    void simulatesSuppliedModel() {
+        var result = service.simulate(payload(0.05, 0.15));
+
+        assertEquals(1_000, result.paths());
+        assertTrue(Double.isFinite(result.successProbability()));
+        Mockito.verifyNoInteractions(fireService);
+    }
+
+    @Test
+    @DisplayName("Rejects paths and seeds that are not whole numbers within range instead of truncating them")
+    void rejectsNonIntegralPathsAndSeed() {
+        assertInvalid("paths", 4_294_967_297L);
+        assertInvalid("paths", 500.5);
+        assertInvalid("seed", 1.5);
+        assertInvalid("seed", Double.NaN);
+        assertInvalid("seed", new BigInteger("18446744073709551616"));
+
+        Map<String, Object> payload = payload(0.05, 0.15);
+        payload.put("paths", 500.0);
+        payload.put("seed", 42);
+        assertEquals(500, service.simulate(payload).paths());
+        Mockito.verifyNoInteractions(fireService);
+    }
+
+    private void assertInvalid(String field, Number value) {
+        Map<String, Object> payload = payload(0.05, 0.15);
+        payload.put(field, value);
+        var error = assertThrows(ValidationException.class, () -> service.simulate(payload));
+        assertEquals("error.portfolio.invalid", error.getMessage());
+    }
+
+    private void assertRejected(double annualReturn, double annualVolatility) {
+        var error = assertThrows(ValidationException.class,
+                () -> service.simulate(payload(annualReturn, annualVolatility)));
+        assertEquals("error.simulation.model_invalid", error.getMessage());
+    }
+
+    private static Map<String, Object> payload(double annualReturn, double annualVolatility) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("years_to_retirement", 20);
+        payload.put("current_value", 10_000);
+        payload.put("monthly_retirement_goal", 2_000);
+        payload.put("monthly_savings", 1_000);
+        payload.put("allocations", Map.of("AAPL", 1));
+        payload.put("annual_return", annualReturn);
+        payload.put("annual_volatility", annualVolatility);
+        payload.put("seed", 1L);
+        return payload;
+    }
+}
@@ -0,0 +1,159 @@
+package com.fireproject;
+
+import com.fireproject.infra.concurrent.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final Counter collapsed = Counter.builder("test.collapsed").register(new SimpleMeterRegistry());
+    private final SingleFlight<String, String> flight = new SingleFlight<>(collapsed);
+
+    @Test
+    @DisplayName("Concurrent calls for one key share a single execution and its value")
+    void concurrentCallsShareOneExecution() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<String> results = runConcurrently(() -> flight.execute("AAPL", () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "answer";
+        }), release);
+
+        assertEquals(1, calls.get());
+        assertEquals(List.of("answer"), results.stream().distinct().toList());
+        assertEquals(CALLERS - 1, collapsed.count());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    @DisplayName("A failure reaches every waiter and the key is released for the next call")
+    void failureReachesEveryWaiter() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("motor down");
+
+        List<String> results = runConcurrently(() -> {
+            try {
+                return flight.execute("AAPL", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    throw failure;
+                });
+            } catch (IllegalStateException e) {
+                return e == failure ? "failed" : "other";
+            }
+        }, release);
+
+        assertEquals(1, calls.get());
+        assertEquals(List.of("failed"), results.stream().distinct().toList());
+        assertEquals(0, flight.inFlight());
+
+        assertEquals("retried", flight.execute("AAPL", () -> {
+            calls.incrementAndGet();
+            return "retried";
+        }));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Async calls share the leader's future and release the key once it completes")
+    void asyncCallsShareOneFuture() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> motor = new CompletableFuture<>();
+
+        List<CompletableFuture<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            waiters.add(flight.executeAsync("AAPL", () -> {
+                calls.incrementAndGet();
+                return motor;
+            }));
+        }
+        assertEquals(1, flight.inFlight());
+
+        motor.complete("answer");
+
+        assertEquals(1, calls.get());
+        waiters.forEach(waiter -> assertEquals("answer", waiter.join()));
+        assertEquals(CALLERS - 1, collapsed.count());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    @DisplayName("An async failure reaches every waiter, including a supplier that throws")
+    void asyncFailureReachesEveryWaiter() {
+        CompletableFuture<String> motor = new CompletableFuture<>();
+        IllegalStateException failure = new IllegalStateException("motor down");
+
+        List<CompletableFuture<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            waiters.add(flight.executeAsync("AAPL", () -> motor));
+        }
+        motor.completeExceptionally(failure);
+
+        for (CompletableFuture<String> waiter : waiters) {
+            CompletionException error = assertThrows(CompletionException.class, waiter::join);
+            assertSame(failure, error.getCause());
+        }
+        assertEquals(0, flight.inFlight());
+
+        CompletableFuture<String> thrown = flight.executeAsync("AAPL", () -> {
+            throw failure;
+        });
+        assertSame(failure, assertThrows(CompletionException.class, thrown::join).getCause());
+        assertEquals(0, flight.inFlight());
+    }
+
+    // Starts every caller, waits until all but the leader are parked on its flight, then lets it finish
+    private List<String> runConcurrently(Callable<String> caller, CountDownLatch release)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(pool.submit(caller));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (collapsed.count() < CALLERS - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            List<String> results = new ArrayList<>();
+            for (Future<String> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -6,14 +6,19 @@ the FireEngine, including health checks and ticker normalization logic.
 """
 import os
 import json
-from pydantic import BaseModel
-from fastapi import FastAPI, Depends, HTTPException, Response, status
+import cbor2
+from pydantic import BaseModel, TypeAdapter, ValidationError
+from fastapi import FastAPI, Depends, HTTPException, Request, Response, status
+from fastapi.encoders import jsonable_encoder
+from fastapi.responses import JSONResponse
 from fastapi.security import HTTPBearer, HTTPAuthorizationCredentials
-from stocks_core import FireEngine
+from stocks_core import FireEngine, run_batch
 
 app = FastAPI(title="FIRE Analysis Service")
 auth_scheme = HTTPBearer()
 
+CBOR = "application/cbor"
+
 # Global state for service health
 READY_STATE = {
     "ticker_map_loaded": False,
@@ -47,6 +52,9 @@ class PortfolioRequest(BaseModel):
     allocations: dict
 
 
+PORTFOLIO_LIST = TypeAdapter(list[PortfolioRequest])
+
+
 @app.get("/")
 def home():
     """Root endpoint providing basic service info."""
@@ -77,34 +85,72 @@ def health_check(response: Response):
     return health_status
 
 
+async def read_body(http_request: Request, validate):
+    """
+    Decodes the request body as CBOR or JSON, by its Content-Type, and
+    validates it with ``validate``.
+
+    Raises:
+        HTTPException: 415 for any other media type, 422 for an invalid body.
+    """
+    content_type = http_request.headers.get("content-type", "").split(";")[0].strip()
+    body = await http_request.body()
+    try:
+        if content_type == CBOR:
+            data = cbor2.loads(body)
+        elif content_type in ("", "application/json"):
+            data = json.loads(body)
+        else:
+            raise HTTPException(status_code=415, detail=f"Unsupported media type: {content_type}")
+        return validate(data)
+    except (ValueError, cbor2.CBORDecodeError) as e:
+        # pydantic's ValidationError is a ValueError as well
+        detail = e.errors() if isinstance(e, ValidationError) else str(e)
+        raise HTTPException(status_code=422, detail=jsonable_encoder(detail)) from e
+
+
+def encode(result, http_request: Request):
+    """Answers in CBOR when the caller accepts it, in JSON otherwise."""
+    payload = jsonable_encoder(result)
+    if CBOR in http_request.headers.get("accept", ""):
+        return Response(content=cbor2.dumps(payload), media_type=CBOR)
+    return JSONResponse(content=payload)
+
+
+def normalize(request: PortfolioRequest):
+    """Portfolio as a dict for FireEngine, with tickers resolved through TICKER_MAP."""
+    # Clean and normalization used charged map
+    cleaned_allocations = {}
+    for ticker, weight in request.allocations.items():
+        clean_name = ticker.strip().upper()
+        # If not in JSON, use user input
+        final_ticker = TICKER_MAP.get(clean_name, clean_name)
+        cleaned_allocations[final_ticker] = weight
+
+    processed_data = request.model_dump()
+    processed_data['allocations'] = cleaned_allocations
+    return processed_data
+
+
 @app.post("/analyze")
 async def analyze(
-        request: PortfolioRequest,
+        http_request: Request,
         token: HTTPAuthorizationCredentials = Depends(auth_scheme)
 ):
     """
     Calculates FIRE projections based on portfolio data.
 
+    Accepts a PortfolioRequest encoded as JSON or CBOR (application/cbor) and
+    answers in CBOR when the Accept header lists it.
     Normalizes tickers via the TICKER_MAP and executes the ML simulation.
     """
+    request = await read_body(http_request, PortfolioRequest.model_validate)
     if not READY_STATE["ticker_map_loaded"]:
         raise HTTPException(
             status_code=503, detail="Service not ready: Ticker mapping missing")
     try:
-        print(f"Verified Token: {token.credentials}")
-        # Clean and normalization used charged map
-        cleaned_allocations = {}
-        for ticker, weight in request.allocations.items():
-            clean_name = ticker.strip().upper()
-            # If not in JSON, use user input
-            final_ticker = TICKER_MAP.get(clean_name, clean_name)
-            cleaned_allocations[final_ticker] = weight
-
-        processed_data = request.model_dump()
-        processed_data['allocations'] = cleaned_allocations
-
-        engine = FireEngine(processed_data)
-        return engine.run_analysis()
+        engine = FireEngine(normalize(request))
+        return encode(engine.run_analysis(), http_request)
 
     except ValueError as e:
         # Error 400 (Bad Request) with which  ticker failed
@@ -113,6 +159,28 @@ async def analyze(
         raise HTTPException(status_code=500, detail=f"Error: {str(e)}") from e
 
 
+@app.post("/analyze/batch")
+async def analyze_batch(
+        http_request: Request,
+        token: HTTPAuthorizationCredentials = Depends(auth_scheme)
+):
+    """
+    Analyzes a list of portfolios sent together by the bridge's micro-batcher.
+
+    Prices are loaded once for the union of all tickers. The answer has one
+    entry per portfolio, in order: ``{"result": ...}`` or, for a portfolio that
+    failed on its own, ``{"status": ..., "detail": ...}``.
+
+    The bearer token is only required to be present: the portfolios may come
+    from different bridge users, so nothing here is attributed to the token.
+    """
+    requests = await read_body(http_request, PORTFOLIO_LIST.validate_python)
+    if not READY_STATE["ticker_map_loaded"]:
+        raise HTTPException(
+            status_code=503, detail="Service not ready: Ticker mapping missing")
+    return encode(run_batch([normalize(r) for r in requests]), http_request)
+
+
 if __name__ == "__main__":
     import uvicorn
     uvicorn.run("main_api:app", host="0.0.0.0", port=8000, reload=True)
@@ -11,19 +11,17 @@ from sklearn.metrics import r2_score
 import numpy as np
 
 
-def predict_future(returns, current_value, monthly_contribution, years):
+def fit_growth_model(returns, current_value):
     """
-    Predicts future portfolio value using log-linear regression
-    but uses the more conservative of regression CAGR vs historical CAGR.
+    Fits the log-linear trend and picks the conservative annual return:
+    the minimum of regression CAGR, historical CAGR and the 7% cap.
 
     Args:
         returns (pd.Series): Historical daily returns (percentage format).
         current_value (float): Starting portfolio balance.
-        monthly_contribution (float): Cash added every 21 trading days.
-        years (int): Number of years to forecast.
 
     Returns:
-        tuple: (future_values_array, confidence_score)
+        tuple: (annual_return, confidence_score)
     """
     safe_current_value = max(1.0, float(current_value))
     if returns.empty:
@@ -85,6 +83,22 @@ def predict_future(returns, current_value, monthly_contribution, years):
           f"Historical annual return = {annual_return_hist:.4%}, "
           f"Using = {annual_return:.4%}")
 
+    return float(annual_return), round(float(confidence), 4)
+
+
+def project_balances(current_value, monthly_contribution, years, annual_return):
+    """
+    Compounds the balance year-by-year at the fitted annual return.
+
+    Args:
+        current_value (float): Starting portfolio balance.
+        monthly_contribution (float): Cash added every month.
+        years (int): Number of years to forecast.
+        annual_return (float): Annual growth rate from fit_growth_model.
+
+    Returns:
+        np.ndarray: Projected balance at the end of each year.
+    """
     # Forecast future log-values and transform back to currency units year-by-year
     future_y = []
     balance = float(current_value)
@@ -93,4 +107,24 @@ def predict_future(returns, current_value, monthly_contribution, years):
         balance += (monthly_contribution * 12)
         future_y.append(balance)
 
-    return np.array(future_y), round(float(confidence), 4)
+    return np.array(future_y)
+
+
+def predict_future(returns, current_value, monthly_contribution, years):
+    """
+    Predicts future portfolio value using log-linear regression
+    but uses the more conservative of regression CAGR vs historical CAGR.
+
+    Args:
+        returns (pd.Series): Historical daily returns (percentage format).
+        current_value (float): Starting portfolio balance.
+        monthly_contribution (float): Cash added every 21 trading days.
+        years (int): Number of years to forecast.
+
+    Returns:
+        tuple: (future_values_array, confidence_score)
+    """
+    annual_return, confidence = fit_growth_model(returns, current_value)
+    future_values = project_balances(
+        current_value, monthly_contribution, years, annual_return)
+    return future_values, confidence
@@ -4,11 +4,15 @@ Orchestration layer for the FIRE calculation engine.
 This module defines the FireEngine class which integrates data retrieval, 
 machine learning predictions, and financial goal analysis.
 """
-from .stock_data_layer import get_portfolio_prices, calculate_portfolio_returns
-from .ML_predictor import predict_future
+from .stock_data_layer import (get_portfolio_prices, calculate_portfolio_returns,
+                               load_closes, select_portfolio_prices)
+from .ML_predictor import fit_growth_model, project_balances
 from .time_to_FIRE import time_to_FIRE, calculate_monthly_needed
 
 
+HISTORY_START = "2010-01-01"
+
+
 class FireEngine:
     """
     Handles the end-to-end execution of a FIRE financial simulation.
@@ -42,10 +46,14 @@ class FireEngine:
         monthly_goal = portfolio_data.get("monthly_retirement_goal", 0.0)
         self.fire_target = 25 * (12 * monthly_goal)
 
-    def run_analysis(self):
+    def run_analysis(self, prices=None):
         """
         Executes the full pipeline: Data download, ML prediction, and FIRE analysis.
 
+        Args:
+            prices (pd.DataFrame, optional): Cleaned closes for this portfolio's
+                                             tickers, when already loaded by a batch.
+
         Returns:
             dict: Comprehensive results including projection metrics and 
                   actionable advice if targets are not met.
@@ -55,12 +63,14 @@ class FireEngine:
         if not tickers:
             raise ValueError("No tickers provided in allocations.")
 
-        prices = get_portfolio_prices(tickers, start="2010-01-01")
+        if prices is None:
+            prices = get_portfolio_prices(tickers, start=HISTORY_START)
         returns = calculate_portfolio_returns(prices, self.allocations)
 
         # 2. Prediction
-        future_values, confidence = predict_future(
-            returns, self.current_val, self.monthly_savings, self.years_left)
+        annual_return, confidence = fit_growth_model(returns, self.current_val)
+        future_values = project_balances(
+            self.current_val, self.monthly_savings, self.years_left, annual_return)
 
         # 3. FIRE Logic
         results = time_to_FIRE(future_values, self.fire_target)
@@ -68,6 +78,8 @@ class FireEngine:
         # 4. Inject "Specifics" for your Main.py report
         results.update({
             "confidence_score": confidence,
+            "annual_return": annual_return,
+            "annual_volatility": float(returns.std() * (252 ** 0.5)),
             "current_val": float(self.current_val),
             "fire_target": float(self.fire_target),
             "final_estimated_value": round(float(future_values[-1]), 2),
@@ -88,3 +100,38 @@ class FireEngine:
             )
 
         return results
+
+
+def run_batch(portfolios):
+    """
+    Analyzes several portfolios with one price download for the union of their
+    tickers. A portfolio that fails does not fail the others.
+
+    Args:
+        portfolios (list): Portfolio dictionaries, as accepted by FireEngine.
+
+    Returns:
+        list: One entry per portfolio, in order: ``{"result": ...}`` on success,
+              ``{"status": ..., "detail": ...}`` with the status a single
+              analysis would have answered otherwise.
+    """
+    union = sorted({t for p in portfolios for t in p.get("allocations", {})})
+    try:
+        closes = load_closes(union, HISTORY_START) if union else None
+    except ValueError:
+        # Nothing came back for the union; let each portfolio report its own error
+        closes = None
+
+    answers = []
+    for portfolio in portfolios:
+        engine = FireEngine(portfolio)
+        try:
+            tickers = list(engine.allocations.keys())
+            prices = (select_portfolio_prices(closes, tickers, HISTORY_START)
+                      if closes is not None and tickers else None)
+            answers.append({"result": engine.run_analysis(prices)})
+        except ValueError as e:
+            answers.append({"status": 400, "detail": str(e)})
+        except Exception as e:
+            answers.append({"status": 500, "detail": f"Error: {str(e)}"})
+    return answers
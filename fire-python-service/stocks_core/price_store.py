@@ -0,0 +1,90 @@
+"""
+Reader for the bridge's local price store.
+
+The Java bridge keeps one memory-mapped file per ticker (``<TICKER>.prices``)
+with two little-endian columns: trading dates as epoch days (int32) and
+adjusted closes (float64). This module maps those files read-only, so a new
+analysis reads years of history from the page cache instead of downloading it.
+"""
+import mmap
+import os
+import struct
+from datetime import date, timedelta
+
+import numpy as np
+import pandas as pd
+
+MAGIC = b"FPX1"
+VERSION = 1
+HEADER = struct.Struct("<4siii")
+HEADER_BYTES = 32
+SUFFIX = ".prices"
+
+
+def store_dir():
+    """Directory shared by the bridge, or None when the store is not configured."""
+    directory = os.environ.get("PRICE_STORE_DIR")
+    return directory if directory and os.path.isdir(directory) else None
+
+
+def read_series(path):
+    """
+    Maps one price file and returns its closes as a Series indexed by date.
+
+    Args:
+        path (str): Location of a ``.prices`` file written by the bridge.
+
+    Returns:
+        pd.Series or None: Adjusted closes, or None if the file holds no rows.
+    """
+    with open(path, "rb") as f:
+        # One mapping per call: header and columns come from the same file even
+        # if the bridge atomically replaces it while we read
+        buffer = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_READ)
+
+    magic, version, capacity, count = HEADER.unpack_from(buffer, 0)
+    if magic != MAGIC or version != VERSION:
+        raise ValueError(f"{path} is not a version {VERSION} price file")
+    if count == 0:
+        return None
+
+    dates = np.frombuffer(buffer, dtype="<i4", count=count, offset=HEADER_BYTES)
+    closes = np.frombuffer(buffer, dtype="<f8", count=count,
+                           offset=HEADER_BYTES + 4 * capacity)
+    index = pd.DatetimeIndex(dates.astype("datetime64[D]"))
+    return pd.Series(closes, index=index)
+
+
+def read_prices(tickers, start, max_age_days=5):
+    """
+    Loads closing prices for every ticker from the local store.
+
+    Args:
+        tickers (list/str): Canonical ticker symbols (aliases already resolved).
+        start (str): The start date for the data (YYYY-MM-DD).
+        max_age_days (int): Oldest acceptable last close, in calendar days.
+
+    Returns:
+        pd.DataFrame or None: Uncleaned closes in the layout load_closes returns,
+                              or None if any ticker is missing or out of date.
+    """
+    directory = store_dir()
+    if directory is None:
+        return None
+
+    if isinstance(tickers, str):
+        tickers = [tickers]
+    oldest_acceptable = pd.Timestamp(date.today() - timedelta(days=max_age_days))
+
+    columns = {}
+    for ticker in tickers:
+        path = os.path.join(directory, ticker + SUFFIX)
+        if not os.path.exists(path):
+            return None
+        series = read_series(path)
+        if series is None or series.index[-1] < oldest_acceptable:
+            return None
+        columns[ticker] = series[series.index >= pd.Timestamp(start)]
+
+    # Cleaned by clean_prices, like the yfinance path
+    return pd.DataFrame(columns)
@@ -8,11 +8,14 @@ portfolio returns for the FIRE analysis engine.
 import yfinance as yf
 import pandas as pd
 
+from .price_store import read_prices
+
 
 def get_portfolio_prices(tickers, start):
     """
     Downloads historical price data and validates that tickers have sufficient historical data.
-    It handles yfinance MultiIndex formatting.
+    It handles yfinance MultiIndex formatting. Reads the local price store instead when it
+    already holds current history for every ticker.
 
     Args:
         tickers (list/str): A list of stock symbols or a single symbol string.
@@ -21,6 +24,27 @@ def get_portfolio_prices(tickers, start):
     Returns:
         pd.DataFrame or pd.Series: Cleaned closing prices with a simplified index.
     """
+    return clean_prices(load_closes(tickers, start), tickers, start)
+
+
+def load_closes(tickers, start):
+    """
+    Raw closing prices for every ticker, from the local store when it is current
+    and from a single yfinance download otherwise. Nothing is filled or dropped,
+    so the frame can be sliced per portfolio before clean_prices runs.
+
+    Args:
+        tickers (list/str): A list of stock symbols or a single symbol string.
+        start (str): The start date for the data (YYYY-MM-DD).
+
+    Returns:
+        pd.DataFrame or pd.Series: Closing prices, one column per ticker.
+    """
+    # Served from the bridge's local store when every ticker is there and current
+    stored = read_prices(tickers, start)
+    if stored is not None and not stored.empty:
+        return stored
+
     # Download with auto_adjust to avoid the subscriptable error
     data = yf.download(tickers, start=start,
                        auto_adjust=True, group_by='column')
@@ -32,18 +56,33 @@ def get_portfolio_prices(tickers, start):
     # yfinance returns a MultiIndex if multiple tickers are passed
     if isinstance(data.columns, pd.MultiIndex):
         if 'Close' in data.columns.levels[0]:
-            prices = data['Close']
-        else:
-            # Fallback for different yfinance versions
-            prices = data.xs(
-                'Close', axis=1, level=0) if 'Close' in data.columns else data
-    else:
-        # Single ticker case
-        prices = data['Close'] if 'Close' in data else data
+            return data['Close']
+        # Fallback for different yfinance versions
+        return data.xs(
+            'Close', axis=1, level=0) if 'Close' in data.columns else data
+    # Single ticker case
+    return data['Close'] if 'Close' in data else data
 
+
+def clean_prices(prices, tickers, start):
+    """
+    Cleans raw closes for one portfolio: days with no data are dropped and gaps
+    in individual tickers are forward-filled.
+
+    Args:
+        prices (pd.DataFrame or pd.Series): Output of load_closes.
+        tickers (list/str): The portfolio's symbols, for the error message.
+        start (str): The requested start date (YYYY-MM-DD).
+
+    Returns:
+        pd.DataFrame or pd.Series: Cleaned closing prices with a simplified index.
+    """
     # Handle mixed start dates (e.g., if one stock IPO'd after 2010)
     # We drop days where NO stocks had data, then fill gaps for individual stocks.
     prices = prices.dropna(how='all').ffill()
+    if prices.empty:
+        raise ValueError(
+            f"No data returned for {tickers}. check internet or tickers.")
 
     # Log a warning if a ticker started much later than the requested 'start' date
     if isinstance(prices, pd.DataFrame):
@@ -61,6 +100,28 @@ def get_portfolio_prices(tickers, start):
     return prices
 
 
+def select_portfolio_prices(closes, tickers, start):
+    """
+    Cuts one portfolio's prices out of closes loaded for a union of tickers, so
+    it is cleaned exactly as if its tickers had been downloaded on their own.
+
+    Args:
+        closes (pd.DataFrame or pd.Series): Output of load_closes for the union.
+        tickers (list): The portfolio's symbols.
+        start (str): The start date for the data (YYYY-MM-DD).
+
+    Returns:
+        pd.DataFrame: Cleaned closing prices for these tickers only.
+    """
+    if isinstance(closes, pd.Series):
+        closes = closes.to_frame(name=tickers[0])
+    missing = [t for t in tickers if t not in closes.columns]
+    if missing:
+        raise ValueError(
+            f"No data returned for {missing}. check internet or tickers.")
+    return clean_prices(closes[tickers], tickers, start)
+
+
 def calculate_portfolio_returns(prices, weights):
     """
     Calculates weighted daily returns for a portfolio. Relative weights.
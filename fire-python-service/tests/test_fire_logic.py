@@ -1,7 +1,7 @@
 import pytest
 import numpy as np
 import pandas as pd
-from stocks_core.ML_predictor import predict_future
+from stocks_core.ML_predictor import fit_growth_model, predict_future
 from stocks_core.time_to_FIRE import time_to_FIRE
 
 
@@ -44,3 +44,20 @@ def test_shortfall_calculation():
     # THEN
     assert result["reached"] is False
     assert result["shortfall"] == 700.0
+
+
+def golden_series():
+    # Deterministic daily returns, built with the same expression as GrowthModelTest.goldenSeries()
+    return pd.Series([((i * 7919) % 2001 - 1000) / 400000.0 + 0.00025 for i in range(756)])
+
+
+def test_growth_model_golden():
+    # GIVEN: Three years of fixed returns; the bridge's GrowthModel port asserts the same values
+    returns = golden_series()
+
+    # WHEN
+    annual_return, confidence = fit_growth_model(returns, 250000)
+
+    # THEN: The historical CAGR is the conservative pick and both R2 terms contribute
+    assert annual_return == pytest.approx(0.065329938973613082, abs=1e-12)
+    assert confidence == 0.9532